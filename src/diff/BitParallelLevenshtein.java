@@ -0,0 +1,199 @@
+package diff;
+
+import java.util.Arrays;
+
+/**
+ * Computes the Levenstein distance between two strings with bit-vectors
+ * (Myers' algorithm, as formulated by Hyyro).<br>
+ * Each column of the distance matrix is encoded as vertical deltas packed into
+ * 64-bit words, so that a character of the longest string is processed in
+ * O(ceil(m/64)) word operations, m being the length of the shortest string.<br>
+ * Strings up to 64 characters use a single word, longer ones use a blocked
+ * variant. Gives the same results as {@link Levenshtein}.
+ */
+public final class BitParallelLevenshtein {
+
+	private static final int WORD = 64;
+	private static final int ALPHABET = 256; // Chars with a precomputed match vector
+
+	/** Match vectors of the pattern for each char below ALPHABET, block per block. Reused by each thread. */
+	private static final ThreadLocal<long[]> PEQ = ThreadLocal.withInitial(() -> new long[ALPHABET]);
+
+	/** Positive and negative vertical deltas of each block. Reused by each thread. */
+	private static final ThreadLocal<long[]> DELTAS = ThreadLocal.withInitial(() -> new long[2]);
+
+	private BitParallelLevenshtein() {
+		// Utility class
+	}
+
+	/**
+	 * Computes the distance between two strings.
+	 *
+	 * @param a
+	 *            string 1
+	 * @param b
+	 *            string 2
+	 * @return the minimal number of insertions, deletions and substitutions
+	 *         turning one string into the other
+	 */
+	public static int distance(CharSequence a, CharSequence b) {
+		if (a.length() < b.length()) { // The pattern is the shortest string
+			CharSequence swap = a;
+			a = b;
+			b = swap;
+		}
+		int n = a.length();
+		int m = b.length();
+		// Skip the common prefix and suffix, which cost nothing
+		int prefix = 0;
+		while (prefix < m && a.charAt(prefix) == b.charAt(prefix)) {
+			prefix++;
+		}
+		if (prefix == m) {
+			return n - m; // Equal strings, or b is a prefix of a
+		}
+		int suffix = 0;
+		while (suffix < m - prefix && a.charAt(n - 1 - suffix) == b.charAt(m - 1 - suffix)) {
+			suffix++;
+		}
+		int textEnd = n - suffix;
+		int patternEnd = m - suffix;
+		if (patternEnd == prefix) {
+			return textEnd - prefix; // Only insertions remain
+		} else if (patternEnd - prefix <= WORD) {
+			return singleWord(a, prefix, textEnd, b, prefix, patternEnd);
+		} else {
+			return blocked(a, prefix, textEnd, b, prefix, patternEnd);
+		}
+	}
+
+	/**
+	 * Distance between the text a[aStart, aEnd[ and the pattern b[bStart,
+	 * bEnd[, the pattern fitting in one word.
+	 */
+	private static int singleWord(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+		int m = bEnd - bStart;
+		long[] peq = PEQ.get();
+		for (int i = 0; i < m; i++) {
+			char c = b.charAt(bStart + i);
+			if (c < ALPHABET) {
+				peq[c] |= 1L << i;
+			}
+		}
+		final long last = 1L << (m - 1);
+		long pv = -1L;
+		long mv = 0L;
+		int score = m;
+		for (int j = aStart; j < aEnd; j++) {
+			char c = a.charAt(j);
+			long eq = c < ALPHABET ? peq[c] : matchVector(b, bStart, bEnd, c);
+			long xv = eq | mv;
+			long xh = (((eq & pv) + pv) ^ pv) | eq;
+			long ph = mv | ~(xh | pv);
+			long mh = pv & xh;
+			if ((ph & last) != 0) {
+				score++;
+			} else if ((mh & last) != 0) {
+				score--;
+			}
+			ph = (ph << 1) | 1L; // The first row grows by one per char of the text
+			mh <<= 1;
+			pv = mh | ~(xv | ph);
+			mv = ph & xv;
+		}
+		clear(peq, b, bStart, bEnd, 0);
+		return score;
+	}
+
+	/**
+	 * Distance between the text a[aStart, aEnd[ and the pattern b[bStart,
+	 * bEnd[, the pattern being split into blocks of one word.
+	 */
+	private static int blocked(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+		int m = bEnd - bStart;
+		int blocks = (m + WORD - 1) / WORD;
+		long[] peq = PEQ.get();
+		if (peq.length < blocks * ALPHABET) {
+			peq = new long[blocks * ALPHABET];
+			PEQ.set(peq);
+		}
+		long[] deltas = DELTAS.get();
+		if (deltas.length < 2 * blocks) {
+			deltas = new long[2 * blocks];
+			DELTAS.set(deltas);
+		}
+		for (int i = 0; i < m; i++) {
+			char c = b.charAt(bStart + i);
+			if (c < ALPHABET) {
+				peq[(i / WORD) * ALPHABET + c] |= 1L << (i % WORD);
+			}
+		}
+		Arrays.fill(deltas, 0, blocks, -1L); // Positive deltas: the first column counts up
+		Arrays.fill(deltas, blocks, 2 * blocks, 0L); // Negative deltas
+
+		final long last = 1L << ((m - 1) % WORD);
+		int score = m;
+		for (int j = aStart; j < aEnd; j++) {
+			char c = a.charAt(j);
+			int carry = 1; // Horizontal delta entering the block, from the first row
+			for (int block = 0; block < blocks; block++) {
+				long eq;
+				if (c < ALPHABET) {
+					eq = peq[block * ALPHABET + c];
+				} else {
+					int blockStart = bStart + block * WORD;
+					eq = matchVector(b, blockStart, Math.min(blockStart + WORD, bEnd), c);
+				}
+				long pv = deltas[block];
+				long mv = deltas[blocks + block];
+				long xv = eq | mv;
+				if (carry < 0) {
+					eq |= 1L;
+				}
+				long xh = (((eq & pv) + pv) ^ pv) | eq;
+				long ph = mv | ~(xh | pv);
+				long mh = pv & xh;
+				long high = block == blocks - 1 ? last : Long.MIN_VALUE;
+				int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+				ph <<= 1;
+				mh <<= 1;
+				if (carry < 0) {
+					mh |= 1L;
+				} else if (carry > 0) {
+					ph |= 1L;
+				}
+				deltas[block] = mh | ~(xv | ph);
+				deltas[blocks + block] = ph & xv;
+				carry = out;
+			}
+			score += carry;
+		}
+		for (int block = 0; block < blocks; block++) {
+			int blockStart = bStart + block * WORD;
+			clear(peq, b, blockStart, Math.min(blockStart + WORD, bEnd), block * ALPHABET);
+		}
+		return score;
+	}
+
+	/** Match vector of a char outside the precomputed alphabet. */
+	private static long matchVector(CharSequence pattern, int start, int end, char c) {
+		long eq = 0L;
+		for (int i = start; i < end; i++) {
+			if (pattern.charAt(i) == c) {
+				eq |= 1L << (i - start);
+			}
+		}
+		return eq;
+	}
+
+	/** Resets the match vectors set by a pattern block, so the table can be reused. */
+	private static void clear(long[] peq, CharSequence pattern, int start, int end, int offset) {
+		for (int i = start; i < end; i++) {
+			char c = pattern.charAt(i);
+			if (c < ALPHABET) {
+				peq[offset + c] = 0L;
+			}
+		}
+	}
+
+}
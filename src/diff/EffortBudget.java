@@ -0,0 +1,150 @@
+package diff;
+
+import java.util.function.Supplier;
+
+/**
+ * Limits the effort spent comparing two trees: a deadline, a maximum number
+ * of pair evaluations, or both.<br>
+ * A budget is spent {@link #within(Supplier)} some work, on the current
+ * thread: every pair evaluated by a
+ * {@link diff.similarity.evaluator.SimilarityEvaluator}, at any depth, is
+ * counted. Once the budget has run out, pairs are no longer evaluated, and
+ * matchings return the best result found so far. Such results are flagged as
+ * approximate (see {@link diff.similarity.Similarity#isApproximate()}).
+ */
+public final class EffortBudget {
+
+	private static final ThreadLocal<EffortBudget> CURRENT = new ThreadLocal<>();
+
+	private final long deadline; // As given by System.nanoTime()
+	private final boolean hasDeadline;
+	private final long maxEvaluations;
+	private long evaluations = 0;
+
+	private EffortBudget(boolean hasDeadline, long deadline, long maxEvaluations) {
+		this.hasDeadline = hasDeadline;
+		this.deadline = deadline;
+		this.maxEvaluations = maxEvaluations;
+	}
+
+	/**
+	 * A budget which never runs out.
+	 *
+	 * @return an unlimited budget
+	 */
+	public static EffortBudget unlimited() {
+		return new EffortBudget(false, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * A budget running out after some time.
+	 *
+	 * @param millis
+	 *            the time allowed, from now on, in milliseconds
+	 * @return a budget
+	 */
+	public static EffortBudget ofMillis(long millis) {
+		return new EffortBudget(true, System.nanoTime() + millis * 1_000_000L, Long.MAX_VALUE);
+	}
+
+	/**
+	 * A budget running out after some pair evaluations, nested ones included.
+	 *
+	 * @param maxEvaluations
+	 *            the number of evaluations allowed
+	 * @return a budget
+	 */
+	public static EffortBudget ofEvaluations(long maxEvaluations) {
+		return new EffortBudget(false, 0, maxEvaluations);
+	}
+
+	/**
+	 * A budget running out after some time or some pair evaluations, whichever
+	 * comes first.
+	 *
+	 * @param millis
+	 *            the time allowed, from now on, in milliseconds
+	 * @param maxEvaluations
+	 *            the number of evaluations allowed
+	 * @return a budget
+	 */
+	public static EffortBudget of(long millis, long maxEvaluations) {
+		return new EffortBudget(true, System.nanoTime() + millis * 1_000_000L, maxEvaluations);
+	}
+
+	/**
+	 * The budget being spent by the current thread.
+	 *
+	 * @return the budget, or null if none
+	 */
+	public static EffortBudget current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * The budget being spent by the current thread, if any.
+	 *
+	 * @return the budget, or an unlimited one
+	 */
+	public static EffortBudget currentOrUnlimited() {
+		EffortBudget budget = CURRENT.get();
+		return budget == null ? unlimited() : budget;
+	}
+
+	/**
+	 * Does some work, spending this budget on the evaluations of the current
+	 * thread.
+	 *
+	 * @param <R>
+	 *            the type of the result
+	 * @param work
+	 *            the work
+	 * @return the result of the work
+	 */
+	public <R> R within(Supplier<R> work) {
+		EffortBudget previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			return work.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Asks for one more evaluation.
+	 *
+	 * @return true if it is allowed (and counted), false if the budget has run
+	 *         out
+	 */
+	public boolean consume() {
+		if (isExhausted()) {
+			return false;
+		}
+		evaluations++;
+		return true;
+	}
+
+	/**
+	 * Tells if the budget has run out.
+	 *
+	 * @return true if no more evaluation is allowed
+	 */
+	public boolean isExhausted() {
+		return evaluations >= maxEvaluations || hasDeadline && System.nanoTime() - deadline >= 0;
+	}
+
+	/**
+	 * The number of evaluations counted so far.
+	 *
+	 * @return a count
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+}
@@ -0,0 +1,116 @@
+package diff;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment problem (Kuhn-Munkres, a.k.a. Hungarian algorithm) on
+ * a rectangular score matrix.<br>
+ * Runs in O(n^2*m) time and O(n + m) extra memory, where n is the smallest
+ * dimension of the matrix.
+ */
+public final class HungarianAssignment {
+
+	private HungarianAssignment() {
+		// Utility class
+	}
+
+	/**
+	 * Finds the assignment of rows to columns which maximizes the total score.
+	 * <br>
+	 * If there are less rows than columns, every row is assigned to a distinct
+	 * column. Otherwise, every column is assigned to a distinct row.
+	 *
+	 * @param scores
+	 *            the score matrix, indexed as {@code scores[row][column]}. All
+	 *            rows must have the same length.
+	 * @return for each row, the index of the assigned column, or -1 if the row
+	 *         is left unassigned
+	 */
+	public static int[] maximize(double[][] scores) {
+		int rows = scores.length;
+		int columns = rows == 0 ? 0 : scores[0].length;
+		int[] rowToColumn = new int[rows];
+		Arrays.fill(rowToColumn, -1);
+		if (rows == 0 || columns == 0) {
+			return rowToColumn;
+		}
+		if (rows <= columns) {
+			return solve(scores, rows, columns, false);
+		}
+		// More rows than columns: solve the transposed problem
+		int[] columnToRow = solve(scores, columns, rows, true);
+		for (int column = 0; column < columns; column++) {
+			rowToColumn[columnToRow[column]] = column;
+		}
+		return rowToColumn;
+	}
+
+	/**
+	 * Shortest augmenting path version of the Hungarian algorithm, with
+	 * potentials. Minimizes the cost (the opposite of the score) for a n*m
+	 * matrix, n <= m.
+	 */
+	private static int[] solve(double[][] scores, int n, int m, boolean transposed) {
+		// Arrays are 1-based, index 0 being a virtual row/column
+		double[] rowPotential = new double[n + 1];
+		double[] columnPotential = new double[m + 1];
+		int[] columnOwner = new int[m + 1]; // row assigned to each column (0 for none)
+		int[] way = new int[m + 1];
+		double[] minSlack = new double[m + 1];
+		boolean[] visited = new boolean[m + 1];
+
+		for (int row = 1; row <= n; row++) {
+			columnOwner[0] = row;
+			int column0 = 0;
+			Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+			Arrays.fill(visited, false);
+			do {
+				visited[column0] = true;
+				int row0 = columnOwner[column0];
+				double delta = Double.POSITIVE_INFINITY;
+				int column1 = 0;
+				for (int column = 1; column <= m; column++) {
+					if (!visited[column]) {
+						double slack = cost(scores, row0 - 1, column - 1, transposed) - rowPotential[row0] - columnPotential[column];
+						if (slack < minSlack[column]) {
+							minSlack[column] = slack;
+							way[column] = column0;
+						}
+						if (minSlack[column] < delta) {
+							delta = minSlack[column];
+							column1 = column;
+						}
+					}
+				}
+				for (int column = 0; column <= m; column++) {
+					if (visited[column]) {
+						rowPotential[columnOwner[column]] += delta;
+						columnPotential[column] -= delta;
+					} else {
+						minSlack[column] -= delta;
+					}
+				}
+				column0 = column1;
+			} while (columnOwner[column0] != 0);
+			// Augment along the path
+			do {
+				int column1 = way[column0];
+				columnOwner[column0] = columnOwner[column1];
+				column0 = column1;
+			} while (column0 != 0);
+		}
+
+		int[] assignment = new int[n];
+		Arrays.fill(assignment, -1);
+		for (int column = 1; column <= m; column++) {
+			if (columnOwner[column] != 0) {
+				assignment[columnOwner[column] - 1] = column - 1;
+			}
+		}
+		return assignment;
+	}
+
+	private static double cost(double[][] scores, int row, int column, boolean transposed) {
+		return transposed ? -scores[column][row] : -scores[row][column];
+	}
+}
@@ -1,28 +1,25 @@
 package diff;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.ToString;
 
 /**
- * Computes the Levenstein distance between two strings.
+ * Computes the Levenstein distance between two strings.<br>
+ * The computation is iterative and keeps only two rows of the distance matrix,
+ * in a buffer reused by each thread: it runs in O(n*m) time and O(min(n,m))
+ * memory, without producing garbage.
  */
 @RequiredArgsConstructor
 public class Levenshtein {
 
-	private final Map<Input, Integer> cache = new HashMap<>();
+	/** Scratch rows, grown on demand and reused by each thread. */
+	private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[64]);
 
 	private final String a;
 	private final String b;
 
 	/**
 	 * Test class
-	 * 
+	 *
 	 * @param args
 	 *            useless
 	 */
@@ -34,44 +31,168 @@ public class Levenshtein {
 
 	/**
 	 * Computes the distance between the two loaded strings
-	 * 
+	 *
 	 * @return the distance
 	 */
 	public int computeDistance() {
-		int i = a.length() - 1;
-		int j = b.length() - 1;
-		return computeRec(i, j);
+		return distance(a, b);
+	}
+
+	/**
+	 * Computes the distance between the two loaded strings, if it does not
+	 * exceed a bound.
+	 *
+	 * @param maxDistance
+	 *            the maximum distance of interest (positive or zero)
+	 * @return the distance if it is at most maxDistance, otherwise
+	 *         maxDistance+1
+	 */
+	public int computeDistance(int maxDistance) {
+		return distance(a, b, maxDistance);
 	}
 
-	private int computeRec(int i, int j) {
-		Integer cachedValue = cache.get(new Input(i, j));
-		if (cachedValue != null) {
-			return cachedValue;
+	/**
+	 * Computes the distance between two strings.
+	 *
+	 * @param a
+	 *            string 1
+	 * @param b
+	 *            string 2
+	 * @return the minimal number of insertions, deletions and substitutions
+	 *         turning one string into the other
+	 */
+	public static int distance(CharSequence a, CharSequence b) {
+		if (a.length() < b.length()) { // The rows span the shortest string
+			CharSequence swap = a;
+			a = b;
+			b = swap;
+		}
+		int n = a.length();
+		int m = b.length();
+		// Skip the common prefix and suffix, which cost nothing
+		int prefix = 0;
+		while (prefix < m && a.charAt(prefix) == b.charAt(prefix)) {
+			prefix++;
 		}
-		int val;
-		if (Math.min(i, j) == 0) {
-			if (Math.max(i, j) == 0) {
-				val = (a.charAt(i) != b.charAt(j) ? 1 : 0); // only 1 char
-			} else {
-				val = Math.max(i, j);
+		if (prefix == m) {
+			return n - m; // Equal strings, or b is a prefix of a
+		}
+		int suffix = 0;
+		while (suffix < m - prefix && a.charAt(n - 1 - suffix) == b.charAt(m - 1 - suffix)) {
+			suffix++;
+		}
+		n -= prefix + suffix;
+		m -= prefix + suffix;
+
+		int[] rows = scratch(2 * (m + 1));
+		int previous = 0; // Offset of the previous row
+		int current = m + 1; // Offset of the current row
+		for (int j = 0; j <= m; j++) {
+			rows[previous + j] = j;
+		}
+		for (int i = 1; i <= n; i++) {
+			char charA = a.charAt(prefix + i - 1);
+			rows[current] = i;
+			for (int j = 1; j <= m; j++) {
+				int substitution = rows[previous + j - 1] + (charA == b.charAt(prefix + j - 1) ? 0 : 1);
+				int deletion = rows[previous + j] + 1;
+				int insertion = rows[current + j - 1] + 1;
+				rows[current + j] = Math.min(substitution, Math.min(deletion, insertion));
 			}
-		} else {
-			int lev1 = computeRec(i - 1, j) + 1;
-			int lev2 = computeRec(i, j - 1) + 1;
-			int lev3 = computeRec(i - 1, j - 1) + (a.charAt(i) != b.charAt(j) ? 1 : 0);
-			val = Math.min(Math.min(lev1, lev2), lev3);
+			int swap = previous;
+			previous = current;
+			current = swap;
 		}
-		cache.put(new Input(i, j), val);
-		return val;
+		return rows[previous + m];
 	}
 
-	@AllArgsConstructor
-	@Getter
-	@EqualsAndHashCode
-	@ToString
-	private static class Input {
-		private final int i;
-		private final int j;
+	/**
+	 * Computes the distance between two strings, if it does not exceed a
+	 * bound.<br>
+	 * Only the diagonal band of width 2*maxDistance+1 of the matrix is
+	 * computed (Ukkonen), and the computation stops as soon as the whole band
+	 * exceeds the bound: it runs in O(maxDistance*min(n,m)) time.
+	 *
+	 * @param a
+	 *            string 1
+	 * @param b
+	 *            string 2
+	 * @param maxDistance
+	 *            the maximum distance of interest (positive or zero)
+	 * @return the distance if it is at most maxDistance, otherwise
+	 *         maxDistance+1
+	 */
+	public static int distance(CharSequence a, CharSequence b, int maxDistance) {
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("Negative maximum distance: " + maxDistance);
+		}
+		if (a.length() < b.length()) { // The rows span the shortest string
+			CharSequence swap = a;
+			a = b;
+			b = swap;
+		}
+		final int exceeded = maxDistance + 1;
+		int n = a.length();
+		int m = b.length();
+		if (n - m > maxDistance) {
+			return exceeded; // The length difference alone costs too much
+		}
+		// Skip the common prefix and suffix, which cost nothing
+		int prefix = 0;
+		while (prefix < m && a.charAt(prefix) == b.charAt(prefix)) {
+			prefix++;
+		}
+		if (prefix == m) {
+			return n - m;
+		}
+		int suffix = 0;
+		while (suffix < m - prefix && a.charAt(n - 1 - suffix) == b.charAt(m - 1 - suffix)) {
+			suffix++;
+		}
+		n -= prefix + suffix;
+		m -= prefix + suffix;
+
+		// Cells out of the band are worth 'exceeded', which is enough to rule them out
+		int[] rows = scratch(2 * (m + 1));
+		int previous = 0; // Offset of the previous row
+		int current = m + 1; // Offset of the current row
+		for (int j = 0; j <= m; j++) {
+			rows[previous + j] = Math.min(j, exceeded);
+		}
+		for (int i = 1; i <= n; i++) {
+			char charA = a.charAt(prefix + i - 1);
+			int low = Math.max(1, i - maxDistance);
+			int high = Math.min(m, i + maxDistance);
+			rows[current + low - 1] = low == 1 ? Math.min(i, exceeded) : exceeded;
+			int rowMin = rows[current + low - 1];
+			for (int j = low; j <= high; j++) {
+				int substitution = rows[previous + j - 1] + (charA == b.charAt(prefix + j - 1) ? 0 : 1);
+				int deletion = rows[previous + j] + 1;
+				int insertion = rows[current + j - 1] + 1;
+				int value = Math.min(exceeded, Math.min(substitution, Math.min(deletion, insertion)));
+				rows[current + j] = value;
+				rowMin = Math.min(rowMin, value);
+			}
+			if (high < m) {
+				rows[current + high + 1] = exceeded;
+			}
+			if (rowMin >= exceeded) {
+				return exceeded; // Distances never decrease along a diagonal
+			}
+			int swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return rows[previous + m];
+	}
+
+	private static int[] scratch(int length) {
+		int[] rows = SCRATCH.get();
+		if (rows.length < length) {
+			rows = new int[Math.max(length, 2 * rows.length)];
+			SCRATCH.set(rows);
+		}
+		return rows;
 	}
 
 }
@@ -3,13 +3,14 @@ package diff;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import diff.complexity.Showable;
 import diff.complexity.SyntaxSizer;
 import diff.complexity.UnitySizer;
+import diff.similarity.ApproximateSimilarity;
 import diff.similarity.LeftLeafSimilarity;
 import diff.similarity.RightLeafSimilarity;
 import diff.similarity.Similarity;
@@ -19,7 +20,12 @@ import lombok.Getter;
 import tokenizer.CodeLocator.CodeLocation;
 
 /**
- * Makes a comparison of two sets of items, matching them as best it can.
+ * Makes a comparison of two sets of items, matching them as best it can.<br>
+ * The optimal matching is found by solving the assignment problem on the
+ * similarity matrix (see {@link HungarianAssignment}). Pairs which can
+ * hardly be similar (see {@link SimilarityEvaluator#upperBound}) are not
+ * evaluated: they score their bound, and are only evaluated if the matching
+ * picks them, until it picks evaluated pairs only.
  *
  * @param <T>
  *            the expected type of the objects, which must be {@link Showable}
@@ -27,15 +33,16 @@ import tokenizer.CodeLocator.CodeLocation;
 @AllArgsConstructor
 public class MaximumMatching<S extends Showable> {
 
+	/** Pairs bounded below this rate are only evaluated if they are matched. */
+	static final double PRUNING_THRESHOLD = 0.5;
+
 	private final SimilarityEvaluator<S> similarityEvaluator;
 	private final SyntaxSizer<S> sizer;
 
 	/**
 	 * Creates a comparison of two sets of items, matching the best it can (no
-	 * order is respected)
+	 * order is respected), within the {@link EffortBudget} being spent if any.
 	 * 
-	 * @param name
-	 *            the name of the global function of this bundle
 	 * @param list1
 	 *            the left side
 	 * @param list2
@@ -43,64 +50,164 @@ public class MaximumMatching<S extends Showable> {
 	 * @return a Similarity analysis
 	 */
 	public List<Similarity> compare(List<S> list1, List<S> list2) {
-		Map<S, Map<S, Similarity>> matrix = new HashMap<>();
-		// Build all comparisons once
-		for (S obj1 : list1) {
-			HashMap<S, Similarity> mapI = new HashMap<>();
-			matrix.put(obj1, mapI);
-			for (S obj2 : list2) {
-				Similarity sim = similarityEvaluator.eval(obj1, obj2);
-				mapI.put(obj2, sim);
-			}
-		}
-		return maximumMatch(matrix, list1, list2);
+		return compare(list1, list2, EffortBudget.currentOrUnlimited());
 	}
 
-	private List<Similarity> maximumMatch(Map<S, Map<S, Similarity>> matrix, List<S> list1, List<S> list2) {
-		return maximumMatchRec(matrix, list1, list2);
+	/**
+	 * Creates a comparison of two sets of items, matching the best it can (no
+	 * order is respected) within an effort budget, spent by all the nested
+	 * evaluations.<br>
+	 * A seed is evaluated first: each item with an identical one on the other
+	 * side (see {@link Showable#identical(Showable, Showable)}), the others
+	 * with the item at the same index. Then the other pairs while the budget
+	 * allows. Pairs left unevaluated cannot be matched, and the analysis is
+	 * then flagged as approximate.
+	 * 
+	 * @param list1
+	 *            the left side
+	 * @param list2
+	 *            the right side
+	 * @param budget
+	 *            the effort budget
+	 * @return a Similarity analysis
+	 */
+	public List<Similarity> compare(List<S> list1, List<S> list2, EffortBudget budget) {
+		return budget.within(() -> match(list1, list2, budget));
 	}
 
-	// Recursive
-	private List<Similarity> maximumMatchRec(Map<S, Map<S, Similarity>> matrix, List<S> list1, List<S> list2) {
-		if (list1.isEmpty() || list2.isEmpty()) {
-			List<Similarity> loners = new ArrayList<>();
-			for (S t : list1) {
-				loners.add(new LeftLeafSimilarity<S>(sizer.size(t), t));
+	private List<Similarity> match(List<S> list1, List<S> list2, EffortBudget budget) {
+		int[] sizes1 = sizes(list1);
+		int[] sizes2 = sizes(list2);
+		Similarity[][] matrix = new Similarity[list1.size()][list2.size()];
+		double[][] scores = new double[list1.size()][list2.size()];
+		boolean[][] visited = new boolean[list1.size()][list2.size()];
+		boolean[][] pruned = new boolean[list1.size()][list2.size()]; // Scores the bound, not evaluated
+		int[] seed = seed(list1, list2);
+		boolean complete = true;
+		// Build all comparisons once, except the hopeless ones: the seed first, then the rest
+		for (int pass = 0; pass < 2 && complete; pass++) {
+			for (int i = 0; i < list1.size() && complete; i++) {
+				S obj1 = list1.get(i);
+				for (int j = 0; j < list2.size(); j++) {
+					if (visited[i][j] || pass == 0 && j != seed[i]) {
+						continue;
+					}
+					if (budget.isExhausted()) {
+						complete = false;
+						break;
+					}
+					visited[i][j] = true;
+					S obj2 = list2.get(j);
+					double bound = similarityEvaluator.upperBound(obj1, sizes1[i], obj2, sizes2[j]);
+					if (bound < PRUNING_THRESHOLD) {
+						pruned[i][j] = true;
+						scores[i][j] = Math.max(0, bound);
+						continue;
+					}
+					Similarity sim = similarityEvaluator.eval(obj1, obj2);
+					matrix[i][j] = sim;
+					scores[i][j] = score(sim);
+				}
 			}
-			for (S t : list2) {
-				loners.add(new RightLeafSimilarity<S>(sizer.size(t), t));
+		}
+		// Evaluate the pruned pairs the matching picks, until it picks evaluated pairs only
+		int[] assignment = HungarianAssignment.maximize(scores);
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 0; i < list1.size(); i++) {
+				int j = assignment[i];
+				if (j < 0 || !pruned[i][j]) {
+					continue;
+				}
+				pruned[i][j] = false;
+				double bound = scores[i][j];
+				if (budget.isExhausted()) {
+					complete = false;
+					scores[i][j] = 0; // Never evaluated: cannot be matched
+					changed = true;
+					continue;
+				}
+				matrix[i][j] = similarityEvaluator.eval(list1.get(i), list2.get(j));
+				scores[i][j] = score(matrix[i][j]);
+				changed |= scores[i][j] != bound;
+			}
+			if (changed) {
+				assignment = HungarianAssignment.maximize(scores);
 			}
-			return loners;
 		}
-		List<Similarity> bestMatch = null;
-		// Make first pair
+		return maximumMatch(matrix, assignment, list1, list2, sizes1, sizes2, complete);
+	}
+
+	/**
+	 * The seed of the matching: for each item on the left, an identical item
+	 * on the right if any, otherwise the item at the same index.
+	 * 
+	 * @return the index of the seed on the right of each item on the left, or
+	 *         -1
+	 */
+	private int[] seed(List<S> list1, List<S> list2) {
+		Map<Object, LinkedList<Integer>> identical = new HashMap<>();
+		for (int j = 0; j < list2.size(); j++) {
+			identical.computeIfAbsent(SeriesComparator.key(list2.get(j)), key -> new LinkedList<>()).add(j);
+		}
+		int[] seed = new int[list1.size()];
+		boolean[] taken = new boolean[list2.size()];
 		for (int i = 0; i < list1.size(); i++) {
-			S obj1 = list1.get(i);
-			List<S> ommitI = new ArrayList<>(list1);
-			ommitI.remove(i);
-			for (int j = 0; j < list2.size(); j++) {
-				List<S> ommitJ = new ArrayList<>(list2);
-				ommitJ.remove(j);
-				S obj2 = list2.get(j);
-				Similarity sim12 = matrix.get(obj1).get(obj2);
-				Similarity matchIJ = sim12;
-
-				// Match the rest of the fucking owl
-				List<Similarity> subMatching = maximumMatchRec(matrix, ommitI, ommitJ);
-
-				// mix initial Pair with submatching
-				subMatching.add(matchIJ);
-
-				if (bestMatch == null || totalSimilarity(subMatching) > totalSimilarity(bestMatch)) {
-					bestMatch = subMatching;
-				}
+			LinkedList<Integer> candidates = identical.get(SeriesComparator.key(list1.get(i)));
+			seed[i] = candidates == null || candidates.isEmpty() ? -1 : candidates.removeFirst();
+			if (seed[i] >= 0) {
+				taken[seed[i]] = true;
 			}
 		}
-		return bestMatch;
+		for (int i = 0; i < list1.size(); i++) {
+			if (seed[i] < 0 && i < list2.size() && !taken[i]) {
+				seed[i] = i;
+				taken[i] = true;
+			}
+		}
+		return seed;
 	}
 
-	private double totalSimilarity(List<Similarity> input) {
-		return input.stream().collect(Collectors.summingDouble(Similarity::similarity));
+	private List<Similarity> maximumMatch(Similarity[][] matrix, int[] assignment, List<S> list1, List<S> list2, int[] sizes1, int[] sizes2,
+		boolean complete) {
+		List<Similarity> result = new ArrayList<>();
+		boolean[] matched2 = new boolean[list2.size()];
+		for (int i = 0; i < list1.size(); i++) {
+			int j = assignment[i];
+			Similarity sim = j >= 0 ? matrix[i][j] : null;
+			if (sim != null) {
+				result.add(sim);
+				matched2[j] = true;
+			} else { // Unassigned, or never evaluated
+				result.add(new LeftLeafSimilarity<S>(sizes1[i], list1.get(i)));
+			}
+		}
+		for (int j = 0; j < list2.size(); j++) {
+			if (!matched2[j]) {
+				result.add(new RightLeafSimilarity<S>(sizes2[j], list2.get(j)));
+			}
+		}
+		if (!complete) {
+			result.replaceAll(ApproximateSimilarity::of);
+		}
+		return result;
+	}
+
+	private int[] sizes(List<S> list) {
+		int[] sizes = new int[list.size()];
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = sizer.size(list.get(i));
+		}
+		return sizes;
+	}
+
+	/**
+	 * The score maximized by the matching. Unmatched items score 0.
+	 */
+	static double score(Similarity similarity) {
+		double score = similarity.similarity();
+		return Double.isNaN(score) ? 0 : score;
 	}
 
 	@AllArgsConstructor
@@ -137,7 +244,7 @@ public class MaximumMatching<S extends Showable> {
 		SimilarityEvaluator<TrucShowable> similarityEvaluator = new SimilarityEvaluator<TrucShowable>(intSizer, "truc") {
 
 			@Override
-			public Similarity eval(TrucShowable obj1, TrucShowable obj2) {
+			protected Similarity evaluate(TrucShowable obj1, TrucShowable obj2) {
 				double diff = Math.abs(obj1.val - obj2.val) / Math.max(1.0, Math.max(Math.abs(obj1.val), Math.abs(obj2.val)));
 				return new Similarity(1 - diff, 1) {
 
@@ -1,11 +1,14 @@
 package diff;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import diff.complexity.Showable;
 import diff.complexity.SyntaxSizer;
+import diff.similarity.ApproximateSimilarity;
 import diff.similarity.LeftLeafSimilarity;
 import diff.similarity.NoSimilarity;
 import diff.similarity.RightLeafSimilarity;
@@ -13,6 +16,7 @@ import diff.similarity.Similarity;
 import diff.similarity.evaluator.SimilarityEvaluator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import tokenizer.CodeLocator.CodeLocation;
 
 /**
  * Compares two series of items, order does matter.
@@ -59,10 +63,14 @@ public class SeriesComparator<T extends Showable> {
 	/**
 	 * Compares the two input list members, one by one in order and produces a
 	 * Similarity analysis of them.<br>
-	 * Inserts gaps in some sides to make a better matching.
+	 * Inserts gaps in some sides to make a better matching.<br>
+	 * Identical items appearing once on each side are anchored first (as in
+	 * patience diff), without being evaluated (see
+	 * {@link SimilarityEvaluator#identical}). Then the gaps between anchors are
+	 * aligned by dynamic
+	 * programming (Needleman-Wunsch): each pair of elements is evaluated at
+	 * most once.
 	 * 
-	 * @param name
-	 *            the name of the global function of this bundle
 	 * @param listA
 	 *            left side
 	 * @param listB
@@ -70,72 +78,228 @@ public class SeriesComparator<T extends Showable> {
 	 * @return a similarity analysis
 	 */
 	public List<Similarity> compareOrderlyWithGaps(List<T> listA, List<T> listB) {
-		if (listA.isEmpty()) {
-			List<Similarity> result = new ArrayList<>();
-			for (T elemB : listB) {
-				result.add(new RightLeafSimilarity<T>(sizer.size(elemB), elemB));
+		return compareOrderlyWithGaps(listA, listB, EffortBudget.currentOrUnlimited());
+	}
+
+	/**
+	 * Compares the two input list members, one by one in order and produces a
+	 * Similarity analysis of them, within an effort budget spent by all the
+	 * nested evaluations.<br>
+	 * Inserts gaps in some sides to make a better matching.<br>
+	 * Identical items are always matched. Other pairs are evaluated starting
+	 * from the diagonal, while the budget allows: pairs left unevaluated
+	 * cannot be matched, and the analysis is then flagged as approximate.
+	 * 
+	 * @param listA
+	 *            left side
+	 * @param listB
+	 *            right side
+	 * @param budget
+	 *            the effort budget
+	 * @return a similarity analysis
+	 */
+	public List<Similarity> compareOrderlyWithGaps(List<T> listA, List<T> listB, EffortBudget budget) {
+		return budget.within(() -> alignWithGaps(listA, listB, budget));
+	}
+
+	private List<Similarity> alignWithGaps(List<T> listA, List<T> listB, EffortBudget budget) {
+		final Object[] keysA = keys(listA);
+		final Object[] keysB = keys(listB);
+		List<Similarity> result = new ArrayList<>();
+		boolean complete = true;
+		int fromA = 0;
+		int fromB = 0;
+		for (int[] anchor : anchors(keysA, keysB)) {
+			complete &= align(listA, keysA, fromA, anchor[0], listB, keysB, fromB, anchor[1], budget, result);
+			result.add(evaluator.identical(listA.get(anchor[0]), listB.get(anchor[1])));
+			fromA = anchor[0] + 1;
+			fromB = anchor[1] + 1;
+		}
+		complete &= align(listA, keysA, fromA, listA.size(), listB, keysB, fromB, listB.size(), budget, result);
+		if (!complete) {
+			result.replaceAll(ApproximateSimilarity::of);
+		}
+		return result;
+	}
+
+	private Object[] keys(List<T> list) {
+		Object[] keys = new Object[list.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = key(list.get(i));
+		}
+		return keys;
+	}
+
+	/**
+	 * Structural key of an item: equal keys denote identical items (see
+	 * {@link Showable#identical(Showable, Showable)}).
+	 */
+	static Object key(Showable item) {
+		if (item.getLocation() == null) {
+			return String.join("\n", item.fullBreakdown(""));
+		}
+		CodeLocation location = item.getLocation();
+		return item.getClass().getName() + '#' + location.getStructuralLength() + '#' + location.getStructuralHash();
+	}
+
+	/**
+	 * Finds the items appearing exactly once on each side, and keeps the
+	 * longest series of them which is in the same order on both sides.
+	 * 
+	 * @return the anchors, as pairs of indexes in both lists, in order
+	 */
+	private static List<int[]> anchors(Object[] keysA, Object[] keysB) {
+		// Count occurrences and remember the position of unique keys
+		Map<Object, int[]> occurrences = new HashMap<>(); // {count in A, index in A, count in B, index in B}
+		for (int i = 0; i < keysA.length; i++) {
+			int[] occurrence = occurrences.computeIfAbsent(keysA[i], key -> new int[4]);
+			occurrence[0]++;
+			occurrence[1] = i;
+		}
+		for (int j = 0; j < keysB.length; j++) {
+			int[] occurrence = occurrences.get(keysB[j]);
+			if (occurrence != null) {
+				occurrence[2]++;
+				occurrence[3] = j;
 			}
-			return result;
-		} else if (listB.isEmpty()) {
-			List<Similarity> result = new ArrayList<>();
-			for (T elemA : listA) {
-				result.add(new LeftLeafSimilarity<T>(sizer.size(elemA), elemA));
+		}
+		// Unique pairs, by increasing index in A
+		List<int[]> uniques = new ArrayList<>();
+		for (int i = 0; i < keysA.length; i++) {
+			int[] occurrence = occurrences.get(keysA[i]);
+			if (occurrence[0] == 1 && occurrence[2] == 1) {
+				uniques.add(new int[] { i, occurrence[3] });
 			}
-			return result;
-		} else { // None empty
-			List<Similarity> bestResult = null;
-			{ // Attempt to insert some left gaps
-				for (int nbGapsA = 0; nbGapsA < listB.size(); nbGapsA++) { // maybe no gap (straight match?)
-					List<T> listBcopy = new ArrayList<>(listB);
-					List<T> listAcopy = new ArrayList<>(listA);
-					// Make the gaps
-					List<Similarity> thisResult = new ArrayList<>();
-					for (int i = 0; i < nbGapsA; i++) {
-						final T itemB = listBcopy.remove(0);
-						final RightLeafSimilarity<T> gap = new RightLeafSimilarity<>(sizer.size(itemB), itemB);
-						thisResult.add(gap);
-					}
-					// Make 1 match
-					T elemA = listAcopy.remove(0);
-					T elemB = listBcopy.remove(0);
-					Similarity simAB = compareElements(elemA, elemB);
-					List<Similarity> rest = compareOrderlyWithGaps(listAcopy, listBcopy);
-					thisResult.add(simAB);
-					thisResult.addAll(rest);
-					if (bestResult == null || totalSimilarity(bestResult) < totalSimilarity(thisResult)) {
-						bestResult = thisResult;
-					}
+		}
+		// Longest increasing subsequence of the indexes in B (patience sorting)
+		int[] pileTops = new int[uniques.size()]; // index in uniques of the top of each pile
+		int[] previous = new int[uniques.size()]; // index in uniques of the predecessor of each pair
+		int piles = 0;
+		for (int k = 0; k < uniques.size(); k++) {
+			int indexB = uniques.get(k)[1];
+			int low = 0;
+			int high = piles;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (uniques.get(pileTops[middle])[1] < indexB) {
+					low = middle + 1;
+				} else {
+					high = middle;
 				}
 			}
-			{ // Attempt to insert some left gaps
-				for (int nbGapsB = 1; nbGapsB < listA.size(); nbGapsB++) { // At least 1 gap
-					List<T> listAcopy = new ArrayList<>(listA);
-					List<T> listBcopy = new ArrayList<>(listB);
-					// Make the gaps
-					List<Similarity> thisResult = new ArrayList<>();
-					for (int i = 0; i < nbGapsB; i++) {
-						final T itemA = listAcopy.remove(0);
-						final LeftLeafSimilarity<T> gap = new LeftLeafSimilarity<>(sizer.size(itemA), itemA);
-						thisResult.add(gap);
+			previous[k] = low > 0 ? pileTops[low - 1] : -1;
+			pileTops[low] = k;
+			if (low == piles) {
+				piles++;
+			}
+		}
+		LinkedList<int[]> anchors = new LinkedList<>();
+		for (int k = piles > 0 ? pileTops[piles - 1] : -1; k >= 0; k = previous[k]) {
+			anchors.addFirst(uniques.get(k));
+		}
+		return anchors;
+	}
+
+	/**
+	 * Aligns listA[fromA, toA[ with listB[fromB, toB[, appending the result.
+	 * Identical leading and trailing items are matched directly, without
+	 * evaluating them, the rest is aligned by dynamic programming.
+	 * 
+	 * @return false if the budget ran out
+	 */
+	private boolean align(List<T> listA, Object[] keysA, int fromA, int toA, List<T> listB, Object[] keysB, int fromB, int toB, EffortBudget budget,
+		List<Similarity> result) {
+		while (fromA < toA && fromB < toB && keysA[fromA].equals(keysB[fromB])) {
+			result.add(evaluator.identical(listA.get(fromA++), listB.get(fromB++)));
+		}
+		int trailing = 0;
+		while (fromA < toA - trailing && fromB < toB - trailing && keysA[toA - trailing - 1].equals(keysB[toB - trailing - 1])) {
+			trailing++;
+		}
+		boolean complete = alignByDynamicProgramming(listA.subList(fromA, toA - trailing), listB.subList(fromB, toB - trailing), budget, result);
+		for (int k = trailing; k > 0; k--) {
+			result.add(evaluator.identical(listA.get(toA - k), listB.get(toB - k)));
+		}
+		return complete;
+	}
+
+	/**
+	 * @return false if the budget ran out
+	 */
+	private boolean alignByDynamicProgramming(List<T> listA, List<T> listB, EffortBudget budget, List<Similarity> result) {
+		final int sizeA = listA.size();
+		final int sizeB = listB.size();
+		// Gaps: their size is computed once per element
+		final int[] gapSizesA = new int[sizeA];
+		for (int i = 0; i < sizeA; i++) {
+			gapSizesA[i] = sizer.size(listA.get(i));
+		}
+		final int[] gapSizesB = new int[sizeB];
+		for (int j = 0; j < sizeB; j++) {
+			gapSizesB[j] = sizer.size(listB.get(j));
+		}
+
+		// Evaluate the pairs by increasing distance to the diagonal, while the budget allows
+		final Similarity[][] matches = new Similarity[sizeA][sizeB];
+		boolean complete = true;
+		evaluation: for (int distance = 0; distance < sizeB; distance++) {
+			for (int i = 0; i < sizeA; i++) {
+				int diagonal = i * sizeB / sizeA;
+				for (int side = -1; side <= 1; side += 2) {
+					int j = diagonal + side * distance;
+					if (j < 0 || j >= sizeB || matches[i][j] != null) {
+						continue;
 					}
-					// Make 1 match
-					T elemA = listAcopy.remove(0);
-					T elemB = listBcopy.remove(0);
-					Similarity simAB = compareElements(elemA, elemB);
-					List<Similarity> rest = compareOrderlyWithGaps(listAcopy, listBcopy);
-					thisResult.add(simAB);
-					thisResult.addAll(rest);
-					if (bestResult == null || totalSimilarity(bestResult) < totalSimilarity(thisResult)) {
-						bestResult = thisResult;
+					if (budget.isExhausted()) {
+						complete = false;
+						break evaluation;
 					}
+					matches[i][j] = evaluator.eval(listA.get(i), listB.get(j));
+				}
+			}
+		}
+
+		// best[i][j] is the best total similarity when aligning listA[i..] with listB[j..]: a match is worth its rate times the
+		// size of both items, which would otherwise be left as gaps
+		final double[][] best = new double[sizeA + 1][sizeB + 1];
+		for (int i = sizeA; i >= 0; i--) {
+			for (int j = sizeB; j >= 0; j--) {
+				if (i == sizeA || j == sizeB) {
+					best[i][j] = 0; // Only gaps remain, which score nothing
+					continue;
 				}
+				double gapScore = Math.max(best[i][j + 1], best[i + 1][j]);
+				best[i][j] = matches[i][j] == null ? gapScore : Math.max(matchScore(matches, best, gapSizesA, gapSizesB, i, j), gapScore);
+			}
+		}
+
+		// Traceback, preferring matches over gaps
+		int i = 0;
+		int j = 0;
+		while (i < sizeA || j < sizeB) {
+			if (i == sizeA) {
+				result.add(new RightLeafSimilarity<T>(gapSizesB[j], listB.get(j)));
+				j++;
+			} else if (j == sizeB) {
+				result.add(new LeftLeafSimilarity<T>(gapSizesA[i], listA.get(i)));
+				i++;
+			} else if (matches[i][j] != null && best[i][j] == matchScore(matches, best, gapSizesA, gapSizesB, i, j)) {
+				result.add(matches[i][j]);
+				i++;
+				j++;
+			} else if (best[i][j] == best[i][j + 1]) {
+				result.add(new RightLeafSimilarity<T>(gapSizesB[j], listB.get(j)));
+				j++;
+			} else {
+				result.add(new LeftLeafSimilarity<T>(gapSizesA[i], listA.get(i)));
+				i++;
 			}
-			return bestResult;
 		}
+		return complete;
 	}
 
-	private double totalSimilarity(List<Similarity> input) {
-		return input.stream().collect(Collectors.summingDouble(Similarity::similarity));
+	private static double matchScore(Similarity[][] matches, double[][] best, int[] gapSizesA, int[] gapSizesB, int i, int j) {
+		return MaximumMatching.score(matches[i][j]) * (gapSizesA[i] + gapSizesB[j]) + best[i + 1][j + 1];
 	}
 
 	private Similarity compareElements(T elemA, T elemB) {
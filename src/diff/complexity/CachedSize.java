@@ -0,0 +1,42 @@
+package diff.complexity;
+
+/**
+ * The size of a syntax node, computed on first demand by its
+ * {@link SyntaxSizer} then kept by the node.
+ */
+public final class CachedSize {
+
+	private static final int UNKNOWN = -1;
+
+	private int size = UNKNOWN;
+
+	/**
+	 * Tells if the size has been computed already.
+	 * 
+	 * @return true if it is known
+	 */
+	public boolean isKnown() {
+		return size != UNKNOWN;
+	}
+
+	/**
+	 * The size of the node.
+	 * 
+	 * @return the size, as given to {@link #set(int)}
+	 */
+	public int get() {
+		return size;
+	}
+
+	/**
+	 * Records the size of the node.
+	 * 
+	 * @param size
+	 *            the size
+	 * @return the size
+	 */
+	public int set(int size) {
+		this.size = size;
+		return size;
+	}
+}
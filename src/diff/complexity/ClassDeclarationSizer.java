@@ -8,6 +8,11 @@ public final class ClassDeclarationSizer extends SyntaxSizer<ClassDeclaration> {
 
     @Override
     public int size(ClassDeclaration obj) {
+        CachedSize cachedSize = obj.getCachedSize();
+        return cachedSize.isKnown() ? cachedSize.get() : cachedSize.set(computeSize(obj));
+    }
+
+    private static int computeSize(ClassDeclaration obj) {
         int classComplexity = ClassNameSizer.CLASS_NAME_SIZER.size(obj.getClassName());
         int fieldsComplexity = VariableDeclarationSizer.VARIABLE_DECLARATION_SIZER.size(obj.getFields());
         int innerComplexity = ClassDeclarationSizer.CLASS_DECLARATION_SIZER.size(obj.getInnerClasses());
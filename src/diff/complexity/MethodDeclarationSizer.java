@@ -8,6 +8,11 @@ public final class MethodDeclarationSizer extends SyntaxSizer<MethodDeclaration>
 
     @Override
     public int size(MethodDeclaration method) {
+        CachedSize cachedSize = method.getCachedSize();
+        return cachedSize.isKnown() ? cachedSize.get() : cachedSize.set(computeSize(method));
+    }
+
+    private static int computeSize(MethodDeclaration method) {
         int returnTypeComplexity = ClassNameSizer.CLASS_NAME_SIZER.size(method.getReturnType());
         int qualifiersCount = method.getQualifiers().size();
         int nameSize = 1; // For
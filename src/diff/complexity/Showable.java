@@ -28,6 +28,28 @@ public interface Showable {
 
 	CodeLocation getLocation();
 
+	/**
+	 * Tells if two items are identical: of the same kind, and with the same
+	 * code, regardless of whitespace and comments (see
+	 * {@link CodeLocation#getStructuralHash()}). The hashes are confirmed by
+	 * the lengths of the code (see {@link CodeLocation#getStructuralLength()}).
+	 * 
+	 * @param left
+	 *            an item
+	 * @param right
+	 *            another item
+	 * @return true if they are identical
+	 */
+	static boolean identical(Showable left, Showable right) {
+		if (left.getClass() != right.getClass()) {
+			return false;
+		}
+		CodeLocation leftLocation = left.getLocation();
+		CodeLocation rightLocation = right.getLocation();
+		return leftLocation != null && rightLocation != null && leftLocation.getStructuralHash() == rightLocation.getStructuralHash()
+				&& leftLocation.getStructuralLength() == rightLocation.getStructuralLength();
+	}
+
 	public static interface ShowableVisitor<R, T> {
 		R visit(TryBlock showable, T input);
 	}
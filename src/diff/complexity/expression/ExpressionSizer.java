@@ -1,5 +1,6 @@
 package diff.complexity.expression;
 
+import diff.complexity.CachedSize;
 import diff.complexity.SyntaxSizer;
 import diff.complexity.expression.blocks.AbstractBlockSizer;
 import diff.complexity.expression.statement.StatementSizer;
@@ -15,7 +16,8 @@ public final class ExpressionSizer extends SyntaxSizer<Expression> implements Ex
 
     @Override
     public int size(Expression obj) {
-        return obj.acceptExpressionVisitor(this);
+        CachedSize cachedSize = obj.getCachedSize();
+        return cachedSize.isKnown() ? cachedSize.get() : cachedSize.set(obj.acceptExpressionVisitor(this));
     }
 
     @Override
@@ -7,6 +7,7 @@ import lexeme.java.tree.expression.blocks.ForBlock;
 import lexeme.java.tree.expression.blocks.IfBlock;
 import lexeme.java.tree.expression.blocks.WhileBlock;
 import lexeme.java.tree.expression.blocks.trycatchfinally.TryCatchFinallyBlock;
+import diff.complexity.CachedSize;
 import diff.complexity.SyntaxSizer;
 import diff.complexity.expression.ExpressionSizer;
 import diff.complexity.expression.blocks.trycatchfinally.CatchBlockSizer;
@@ -20,7 +21,8 @@ public final class AbstractBlockSizer extends SyntaxSizer<AbstractBlock> impleme
 
 	@Override
 	public int size(AbstractBlock obj) {
-		return obj.acceptBlockVisitor(this);
+		CachedSize cachedSize = obj.getCachedSize(); // Shared with the ExpressionSizer
+		return cachedSize.isKnown() ? cachedSize.get() : cachedSize.set(obj.acceptBlockVisitor(this));
 	}
 
 	@Override
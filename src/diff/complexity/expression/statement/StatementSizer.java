@@ -1,5 +1,6 @@
 package diff.complexity.expression.statement;
 
+import diff.complexity.CachedSize;
 import diff.complexity.SyntaxSizer;
 import diff.complexity.expression.statement.operator.OperatorSizer;
 import diff.complexity.expression.statement.primitivetypes.PrimitiveValueSizer;
@@ -21,7 +22,8 @@ public final class StatementSizer extends SyntaxSizer<Statement> implements Stat
 
 	@Override
 	public int size(Statement obj) {
-		return obj.acceptStatementVisitor(this);
+		CachedSize cachedSize = obj.getCachedSize(); // Shared with the ExpressionSizer
+		return cachedSize.isKnown() ? cachedSize.get() : cachedSize.set(obj.acceptStatementVisitor(this));
 	}
 
 	@Override
@@ -0,0 +1,67 @@
+package diff.similarity;
+
+import java.util.List;
+
+import diff.complexity.Showable;
+
+/**
+ * Flags an analysis as approximate, without altering it: analysis may be
+ * shared, for instance by a
+ * {@link diff.similarity.evaluator.SimilarityMemo}.<br>
+ * Shows and visits as the analysis itself.
+ */
+public class ApproximateSimilarity extends Similarity {
+
+	private final Similarity similarity;
+
+	private ApproximateSimilarity(Similarity similarity) {
+		super(similarity.getSame(), similarity.getAmount());
+		this.similarity = similarity;
+		markApproximate();
+	}
+
+	/**
+	 * Flags an analysis as approximate.
+	 * 
+	 * @param similarity
+	 *            an analysis
+	 * @return the same analysis if it is already approximate or empty, or an
+	 *         approximate view of it
+	 */
+	public static Similarity of(Similarity similarity) {
+		if (similarity.isApproximate() || similarity.isEmpty()) {
+			return similarity;
+		}
+		return new ApproximateSimilarity(similarity);
+	}
+
+	@Override
+	public double similarity() {
+		return similarity.similarity();
+	}
+
+	@Override
+	public Showable showLeft() {
+		return similarity.showLeft();
+	}
+
+	@Override
+	public Showable showRight() {
+		return similarity.showRight();
+	}
+
+	@Override
+	public List<Similarity> subSimilarities() {
+		return similarity.subSimilarities();
+	}
+
+	@Override
+	public List<String[]> show(String prefix) {
+		return similarity.show(prefix);
+	}
+
+	@Override
+	public <T> T accept(SimilarityVisitor<T> visitor) {
+		return similarity.accept(visitor);
+	}
+}
@@ -244,22 +244,23 @@ public abstract class CompositeSimilarity extends Similarity {
 	}
 
 	protected void addOne(Similarity sim) {
-		contents.add(new HintedSimilarity(DEFAULT_HINT, sim));
+		addOne(sim, DEFAULT_HINT);
 	}
 
 	protected void addAll(List<Similarity> similarities) {
-		for (Similarity sim : similarities) {
-			contents.add(new HintedSimilarity(DEFAULT_HINT, sim));
-		}
+		addAll(similarities, DEFAULT_HINT);
 	}
 
 	protected void addOne(Similarity sim, SimilarityChainingHint hint) {
 		contents.add(new HintedSimilarity(hint, sim));
+		if (sim.isApproximate()) {
+			markApproximate();
+		}
 	}
 
 	protected void addAll(List<Similarity> similarities, SimilarityChainingHint hint) {
 		for (Similarity sim : similarities) {
-			contents.add(new HintedSimilarity(hint, sim));
+			addOne(sim, hint);
 		}
 	}
 
@@ -0,0 +1,36 @@
+package diff.similarity;
+
+import java.util.List;
+
+import diff.complexity.Showable;
+
+/**
+ * Similarity between two identical objects, found without comparing them in
+ * detail (see {@link Showable#identical(Showable, Showable)}).
+ *
+ * @param <S>
+ *            the type of the objects compared
+ */
+public class IdenticalSimilarity<S extends Showable> extends LeafSimilarity<S> {
+
+	/**
+	 * Builds a full similarity between two identical objects.
+	 * 
+	 * @param name
+	 *            the name of the objects type
+	 * @param amount
+	 *            the size of both objects
+	 * @param obj1
+	 *            the left object
+	 * @param obj2
+	 *            the right object
+	 */
+	public IdenticalSimilarity(String name, int amount, S obj1, S obj2) {
+		super(name, amount, amount, obj1, obj2);
+	}
+
+	@Override
+	public List<String[]> show(String prefix) {
+		return showSideBySide(prefix);
+	}
+}
@@ -54,6 +54,27 @@ public abstract class LeafSimilarity<S extends Showable> extends Similarity {
 		return new ArrayList<>();
 	}
 
+	/**
+	 * Shows both objects side by side, with the similarity rate on each line.
+	 * 
+	 * @param prefix
+	 *            the prefix on the left
+	 * @return a {@link List} of lines
+	 */
+	protected List<String[]> showSideBySide(String prefix) {
+		List<String> leftShow = obj1.fullBreakdown(prefix);
+		List<String> rightShow = obj2.fullBreakdown(prefix);
+		List<String[]> list = new ArrayList<>();
+		int i = 0;
+		int j = 0;
+		while (i < leftShow.size() || j < rightShow.size()) {
+			String leftStr = i < leftShow.size() ? leftShow.get(i++) : "";
+			String rightStr = j < rightShow.size() ? rightShow.get(j++) : "";
+			list.add(new String[] { leftStr, Double.toString(similarity()), rightStr });
+		}
+		return list;
+	}
+
 	@Override
 	public <T> T accept(SimilarityVisitor<T> visitor) {
 		return visitor.visit(this);
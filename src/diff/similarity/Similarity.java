@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import diff.BitParallelLevenshtein;
 import diff.Levenshtein;
 import diff.complexity.Showable;
 import diff.complexity.SyntaxSizer;
@@ -31,6 +32,8 @@ public abstract class Similarity {
 
 	private final double same;
 	private final int amount;
+	/** Analysis cut short by an effort budget: a better one may exist. */
+	private boolean approximate = false;
 
 	public abstract Showable showLeft();
 
@@ -47,6 +50,17 @@ public abstract class Similarity {
 		return same / amount;
 	}
 
+	/**
+	 * Flags this analysis as approximate, while it is built. A built analysis
+	 * may be shared: see {@link ApproximateSimilarity#of(Similarity)}.
+	 * 
+	 * @return this
+	 */
+	protected Similarity markApproximate() {
+		approximate = true;
+		return this;
+	}
+
 	/**
 	 * Holds no information (irrelevant and should be ignored).
 	 * 
@@ -131,9 +145,41 @@ public abstract class Similarity {
 	 *         matching))
 	 */
 	public static StringSimilarity eval(ShowableString strA, ShowableString strB) {
-		int dist = new Levenshtein(strA.getContent(), strB.getContent()).computeDistance();
-		int maxLen = Math.max(strA.getContent().length(), strB.getContent().length());
-		return new StringSimilarity((maxLen - dist) / (double) maxLen, 1, strA, strB);
+		if (strA.isSameSymbol(strB)) {
+			return new StringSimilarity(1, 1, strA, strB); // Same interned symbol
+		}
+		return new StringSimilarity(stringSimilarity(strA.getContent(), strB.getContent()), 1, strA, strB);
+	}
+
+	/**
+	 * Compares two string using Levenshtein distance, when only similar enough
+	 * strings are of interest.<br>
+	 * The distance computation stops early once the strings are known to be
+	 * less similar than the cutoff.
+	 * 
+	 * @param strA
+	 *            string 1
+	 * @param strB
+	 *            string 2
+	 * @param cutoff
+	 *            the minimum similarity of interest, between 0 and 1
+	 * @return distance : 0 (completely different, or less similar than the
+	 *         cutoff) ... 1 (all characters matching))
+	 */
+	public static StringSimilarity eval(ShowableString strA, ShowableString strB, double cutoff) {
+		if (strA.isSameSymbol(strB)) {
+			return new StringSimilarity(1, 1, strA, strB);
+		}
+		String contentA = strA.getContent();
+		String contentB = strB.getContent();
+		int maxLen = Math.max(contentA.length(), contentB.length());
+		if (maxLen == 0) {
+			return new StringSimilarity(1, 1, strA, strB);
+		}
+		int maxDistance = Math.max(0, (int) Math.floor((1 - cutoff) * maxLen));
+		int dist = Levenshtein.distance(contentA, contentB, maxDistance);
+		double similarity = dist > maxDistance ? 0 : (maxLen - dist) / (double) maxLen;
+		return new StringSimilarity(similarity, 1, strA, strB);
 	}
 
 	/**
@@ -147,10 +193,33 @@ public abstract class Similarity {
 	 *         matching))
 	 */
 	public static StringSimilarity eval(StringValue strA, StringValue strB) {
-		int dist = new Levenshtein(strA.getStringContent(), strB.getStringContent()).computeDistance();
-		int maxLen = Math.max(strA.getStringContent().length(), strB.getStringContent().length());
-		return new StringSimilarity((maxLen - dist) / (double) maxLen, 1, new ShowableString(strA.getStringContent(), strA.getLocation()),
-			new ShowableString(strB.getStringContent(), strB.getLocation()));
+		return eval(new ShowableString(strA.getStringContent(), strA.getLocation()), new ShowableString(strB.getStringContent(), strB.getLocation()));
+	}
+
+	/**
+	 * Compares two litteral Strings using Levenshtein distance, when only
+	 * similar enough strings are of interest.
+	 * 
+	 * @param strA
+	 *            string 1
+	 * @param strB
+	 *            string 2
+	 * @param cutoff
+	 *            the minimum similarity of interest, between 0 and 1
+	 * @return distance : 0 (completely different, or less similar than the
+	 *         cutoff) ... 1 (all characters matching))
+	 */
+	public static StringSimilarity eval(StringValue strA, StringValue strB, double cutoff) {
+		return eval(new ShowableString(strA.getStringContent(), strA.getLocation()), new ShowableString(strB.getStringContent(), strB.getLocation()),
+			cutoff);
+	}
+
+	private static double stringSimilarity(String strA, String strB) {
+		int maxLen = Math.max(strA.length(), strB.length());
+		if (maxLen == 0) {
+			return 1; // Both empty
+		}
+		return (maxLen - BitParallelLevenshtein.distance(strA, strB)) / (double) maxLen;
 	}
 
 	/**
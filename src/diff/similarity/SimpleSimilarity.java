@@ -10,10 +10,10 @@ import java.util.stream.Collectors;
 
 import diff.complexity.Showable;
 import lexeme.java.tree.JavaWhitespace;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import tokenizer.CodeLocator.CodeBranch;
 import tokenizer.CodeLocator.CodeLocation;
+import tokenizer.SymbolTable;
 
 /**
  * Simple similarity (placeholder to present differences)
@@ -22,15 +22,69 @@ import tokenizer.CodeLocator.CodeLocation;
 public class SimpleSimilarity extends Similarity {
 
 	@Getter
-	@AllArgsConstructor
 	public static class ShowableString implements Showable {
 
 		String content;
 		CodeLocation location;
+		int symbol; // Id in the symbol table of the location
+
+		/**
+		 * Builds a string, not interned: for the strings derived from the
+		 * tree, short-lived.
+		 * 
+		 * @param content
+		 *            the string
+		 * @param location
+		 *            its location (may be null)
+		 */
+		public ShowableString(String content, CodeLocation location) {
+			this(content, location, SymbolTable.NONE);
+		}
+
+		private ShowableString(String content, CodeLocation location, int symbol) {
+			this.content = content;
+			this.location = location;
+			this.symbol = symbol;
+		}
+
+		/**
+		 * Builds a string of the parsed code, interned in the symbol table of
+		 * its location if any.
+		 * 
+		 * @param content
+		 *            the string
+		 * @param location
+		 *            its location (may be null)
+		 * @return the string
+		 */
+		public static ShowableString interned(String content, CodeLocation location) {
+			if (location == null) {
+				return new ShowableString(content, null);
+			}
+			SymbolTable symbols = location.getSymbolTable();
+			int symbol = symbols.intern(content);
+			return new ShowableString(symbols.get(symbol), location, symbol);
+		}
+
+		/**
+		 * Tells if two strings are known to be equal without comparing them:
+		 * by their symbol ids, or else as the same canonical string.
+		 * 
+		 * @param other
+		 *            another string
+		 * @return true if both are the same symbol of the same table, or the
+		 *         same string
+		 */
+		public boolean isSameSymbol(ShowableString other) {
+			if (symbol == SymbolTable.NONE || other.symbol == SymbolTable.NONE) {
+				return content == other.content;
+			}
+			return symbol == other.symbol && location.getSymbolTable() == other.location.getSymbolTable();
+		}
 
 		public static Optional<ShowableString> fromPattern(CodeBranch input, Pattern pattern) {
 			CodeBranch fork = input.fork();
-			Matcher classNameMatcher = pattern.matcher(fork.getRest());
+			Matcher classNameMatcher = pattern.matcher(fork.getRestView());
 			if (!classNameMatcher.lookingAt()) {
 				// Not a class name!
 				return Optional.empty();
@@ -38,7 +92,7 @@ public class SimpleSimilarity extends Similarity {
 			// Advancing input to end of class name
 			fork.advance(classNameMatcher.group(0).length());
 			JavaWhitespace.skipWhitespaceAndComments(fork);
-			return Optional.of(new ShowableString(classNameMatcher.group(0), fork.commit()));
+			return Optional.of(interned(classNameMatcher.group(0), fork.commit()));
 		}
 
 		@Override
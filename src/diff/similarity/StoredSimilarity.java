@@ -0,0 +1,71 @@
+package diff.similarity;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import diff.complexity.Showable;
+
+/**
+ * Similarity between two objects, as found by an earlier diff (see
+ * {@link diff.similarity.evaluator.SimilarityStore}). The scores are known at
+ * once; the details of the differences are evaluated again, once, when they
+ * are shown or visited, by the evaluation given (which the store runs under
+ * the budget and the memo of the diff).
+ */
+public class StoredSimilarity extends Similarity {
+
+	private final Supplier<Similarity> evaluation;
+	private Similarity details = null;
+
+	/**
+	 * Builds a similarity from stored scores.
+	 *
+	 * @param same
+	 *            the stored similarity
+	 * @param amount
+	 *            the stored size
+	 * @param evaluation
+	 *            evaluates the details of the similarity, when needed
+	 */
+	public StoredSimilarity(double same, int amount, Supplier<Similarity> evaluation) {
+		super(same, amount);
+		this.evaluation = evaluation;
+	}
+
+	/**
+	 * The details of the similarity, evaluated on the first call.
+	 *
+	 * @return the analysis
+	 */
+	public Similarity details() {
+		if (details == null) {
+			details = evaluation.get();
+		}
+		return details;
+	}
+
+	@Override
+	public Showable showLeft() {
+		return details().showLeft();
+	}
+
+	@Override
+	public Showable showRight() {
+		return details().showRight();
+	}
+
+	@Override
+	public List<Similarity> subSimilarities() {
+		return details().subSimilarities();
+	}
+
+	@Override
+	public List<String[]> show(String prefix) {
+		return details().show(prefix);
+	}
+
+	@Override
+	public <T> T accept(SimilarityVisitor<T> visitor) {
+		return details().accept(visitor);
+	}
+}
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 
 import diff.complexity.ClassDeclarationSizer;
 import diff.complexity.ClassNameSizer;
+import diff.complexity.Showable;
 import diff.similarity.CompositeSimilarity;
 import diff.similarity.LeftLeafSimilarity;
 import diff.similarity.NoSimilarity;
@@ -22,13 +23,39 @@ import prettyprinting.SimilarityChainingHint;
 public class ClassDeclarationSimilarityEvaluator extends SimilarityEvaluator<ClassDeclaration> {
 	/** Instance. */
 	public static final ClassDeclarationSimilarityEvaluator INSTANCE = new ClassDeclarationSimilarityEvaluator();
+	/** Version of the evaluation, for the {@link SimilarityStore}. */
+	private static final int VERSION = 1;
 
 	private ClassDeclarationSimilarityEvaluator() {
 		super(ClassDeclarationSizer.CLASS_DECLARATION_SIZER, "class");
 	}
 
+	/** Bounds the similarity rate by the sizes of the two sides: a much smaller or larger class is hardly similar. */
 	@Override
-	public ClassDeclarationSimilarity eval(ClassDeclaration class1, ClassDeclaration class2) {
+	public double upperBound(ClassDeclaration class1, int size1, ClassDeclaration class2, int size2) {
+		return sizeBound(size1, size2);
+	}
+
+	@Override
+	protected Similarity evaluate(ClassDeclaration class1, ClassDeclaration class2) {
+		if (Showable.identical(class1, class2) && sameShape(class1, class2)) {
+			return identical(class1, class2);
+		}
+		SimilarityStore store = SimilarityStore.current();
+		if (store == null) {
+			return compare(class1, class2);
+		}
+		Similarity stored = store.get(this, VERSION, class1, class2, () -> compare(class1, class2));
+		if (stored != null) {
+			return stored;
+		}
+		Similarity similarity = compare(class1, class2);
+		store.put(this, VERSION, class1, class2, similarity);
+		return similarity;
+	}
+
+	/** Compares two classes part by part, regardless of the {@link SimilarityStore}. */
+	private Similarity compare(ClassDeclaration class1, ClassDeclaration class2) {
 		List<Similarity> qualifiersSim = QualifierSimilarityEvaluator.INSTANCE.maximumMatchList(class1.getQualifiers(), class2.getQualifiers());
 		Similarity nameSimilarity = Similarity.eval(class1.getClassName(), class2.getClassName());
 		Similarity nestedSubParameters = subParamSimilarity(class1.getNestedSubParameters(), class2.getNestedSubParameters());
@@ -44,10 +71,45 @@ public class ClassDeclarationSimilarityEvaluator extends SimilarityEvaluator<Cla
 			class2.getStaticInnerClasses());
 		List<Similarity> staticMethodsSim = MethodDeclarationSimilarityEvaluator.INSTANCE.maximumMatchList(class1.getStaticMethods(),
 			class2.getStaticMethods());
+		return ClassDeclarationSimilarity.build(qualifiersSim, nameSimilarity, nestedSubParameters, extendsClass, implementedInterfaces,
+			fieldsSim, innerClassDeclarationSim, methodsSim, staticFieldsSim, staticInnerClassDeclarationSim, staticMethodsSim);
+	}
+
+	/**
+	 * Builds the similarity of two identical classes from the similarities of
+	 * their identical parts, without comparing them.
+	 */
+	@Override
+	public Similarity identical(ClassDeclaration class1, ClassDeclaration class2) {
+		List<Similarity> qualifiersSim = QualifierSimilarityEvaluator.INSTANCE.identicalList(class1.getQualifiers(), class2.getQualifiers());
+		Similarity nameSimilarity = Similarity.eval(class1.getClassName(), class2.getClassName());
+		Similarity nestedSubParameters = subParamSimilarity(class1.getNestedSubParameters(), class2.getNestedSubParameters());
+		Similarity extendsClass = class1.getExtendsClass().isPresent() && class2.getExtendsClass().isPresent()
+			? ClassNameSimilarityEvaluator.INSTANCE.identical(class1.getExtendsClass().get(), class2.getExtendsClass().get())
+			: new NoSimilarity();
+		List<Similarity> implementedInterfaces = ClassNameSimilarityEvaluator.INSTANCE.identicalList(class1.getImplementedInterfaces(),
+			class2.getImplementedInterfaces());
+		List<Similarity> fieldsSim = VariableDeclarationSimilarityEvaluator.INSTANCE.identicalList(class1.getFields(), class2.getFields());
+		List<Similarity> innerClassDeclarationSim = identicalList(class1.getInnerClasses(), class2.getInnerClasses());
+		List<Similarity> methodsSim = MethodDeclarationSimilarityEvaluator.INSTANCE.identicalList(class1.getMethods(), class2.getMethods());
+		List<Similarity> staticFieldsSim = VariableDeclarationSimilarityEvaluator.INSTANCE.identicalList(class1.getStaticFields(), class2.getStaticFields());
+		List<Similarity> staticInnerClassDeclarationSim = identicalList(class1.getStaticInnerClasses(), class2.getStaticInnerClasses());
+		List<Similarity> staticMethodsSim = MethodDeclarationSimilarityEvaluator.INSTANCE.identicalList(class1.getStaticMethods(), class2.getStaticMethods());
 		return ClassDeclarationSimilarity.build(qualifiersSim, nameSimilarity, nestedSubParameters, extendsClass, implementedInterfaces, fieldsSim,
 			innerClassDeclarationSim, methodsSim, staticFieldsSim, staticInnerClassDeclarationSim, staticMethodsSim);
 	}
 
+	/** Confirms that two classes of the same structural hash are made of the same parts, in case of a collision. */
+	private boolean sameShape(ClassDeclaration class1, ClassDeclaration class2) {
+		return sizer.size(class1) == sizer.size(class2) && class1.getQualifiers().size() == class2.getQualifiers().size()
+			&& class1.getExtendsClass().isPresent() == class2.getExtendsClass().isPresent()
+			&& class1.getImplementedInterfaces().size() == class2.getImplementedInterfaces().size() && class1.getFields().size() == class2.getFields().size()
+			&& class1.getInnerClasses().size() == class2.getInnerClasses().size() && class1.getMethods().size() == class2.getMethods().size()
+			&& class1.getStaticFields().size() == class2.getStaticFields().size()
+			&& class1.getStaticInnerClasses().size() == class2.getStaticInnerClasses().size()
+			&& class1.getStaticMethods().size() == class2.getStaticMethods().size();
+	}
+
 	private Similarity subParamSimilarity(List<ClassName> listA, List<ClassName> listB) {
 		if (listA == null) {
 			// no parameters on left side
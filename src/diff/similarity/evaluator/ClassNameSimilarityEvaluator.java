@@ -66,7 +66,7 @@ public class ClassNameSimilarityEvaluator extends SimilarityEvaluator<ClassName>
 	}
 
 	@Override
-	public Similarity eval(ClassName class1, ClassName class2) {
+	protected Similarity evaluate(ClassName class1, ClassName class2) {
 		// Dimensions
 		final Similarity dimSimilarity;
 		if (!class1.getArrayDimension().isPresent()) {
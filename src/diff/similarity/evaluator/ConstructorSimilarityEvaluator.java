@@ -14,7 +14,7 @@ public class ConstructorSimilarityEvaluator extends SimilarityEvaluator<Construc
 	}
 
 	@Override
-	public Similarity eval(Constructor ctorA, Constructor ctorB) {
+	protected Similarity evaluate(Constructor ctorA, Constructor ctorB) {
 		Similarity simQualifiers = QualifierSimilarityEvaluator.INSTANCE.maximumMatch(ctorA.getQualifiers(), ctorB.getQualifiers());
 		Similarity simName = Similarity.eval(ctorA.getName(), ctorB.getName());
 		Similarity simParameters = ParameterTypeDeclarationSimilarityEvaluator.INSTANCE.compareWithGaps(ctorA.getParameters(), ctorB.getParameters());
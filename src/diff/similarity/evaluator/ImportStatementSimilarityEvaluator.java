@@ -19,7 +19,7 @@ public class ImportStatementSimilarityEvaluator extends SimilarityEvaluator<Impo
 	}
 
 	@Override
-	public Similarity eval(ImportStatement import1, ImportStatement import2) {
+	protected Similarity evaluate(ImportStatement import1, ImportStatement import2) {
 		ShowableString leftString = new ShowableString(import1.getImportStatement(), import1.getLocation());
 		ShowableString rightString = new ShowableString(import2.getImportStatement(), import2.getLocation());
 		return StringSimilarity.eval(leftString, rightString);
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import diff.complexity.MethodDeclarationSizer;
+import diff.complexity.Showable;
 import diff.similarity.CompositeSimilarity;
 import diff.similarity.Similarity;
 import diff.similarity.evaluator.expression.ExpressionSimilarityEvaluator;
@@ -17,13 +18,39 @@ public class MethodDeclarationSimilarityEvaluator extends SimilarityEvaluator<Me
 
 	/** Instance. */
 	public static final MethodDeclarationSimilarityEvaluator INSTANCE = new MethodDeclarationSimilarityEvaluator();
+	/** Changes with the evaluation, so that older results of the {@link SimilarityStore} are not used. */
+	private static final int VERSION = 1;
 
 	private MethodDeclarationSimilarityEvaluator() {
 		super(MethodDeclarationSizer.METHOD_DECLARATION_SIZER, "method");
 	}
 
+	/** Bounds the similarity rate by the sizes of the two sides: a much smaller or larger method is hardly similar. */
 	@Override
-	public Similarity eval(MethodDeclaration methodA, MethodDeclaration methodB) {
+	public double upperBound(MethodDeclaration methodA, int size1, MethodDeclaration methodB, int size2) {
+		return sizeBound(size1, size2);
+	}
+
+	@Override
+	protected Similarity evaluate(MethodDeclaration methodA, MethodDeclaration methodB) {
+		if (Showable.identical(methodA, methodB) && sameShape(methodA, methodB)) {
+			return identical(methodA, methodB);
+		}
+		SimilarityStore store = SimilarityStore.current();
+		if (store == null) {
+			return compare(methodA, methodB);
+		}
+		Similarity stored = store.get(this, VERSION, methodA, methodB, () -> compare(methodA, methodB));
+		if (stored != null) {
+			return stored;
+		}
+		Similarity similarity = compare(methodA, methodB);
+		store.put(this, VERSION, methodA, methodB, similarity);
+		return similarity;
+	}
+
+	/** Compares two methods part by part, regardless of the {@link SimilarityStore}. */
+	private Similarity compare(MethodDeclaration methodA, MethodDeclaration methodB) {
 		List<Similarity> simQualifiers = QualifierSimilarityEvaluator.INSTANCE.compareWithGapsList(methodA.getQualifiers(), methodB.getQualifiers());
 		Similarity simReturnType = ClassNameSimilarityEvaluator.INSTANCE.eval(methodA.getReturnType(), methodB.getReturnType());
 		Similarity simName = Similarity.eval(methodA.getName(), methodB.getName());
@@ -33,6 +60,26 @@ public class MethodDeclarationSimilarityEvaluator extends SimilarityEvaluator<Me
 		return MethodDeclarationSimilarity.build(simQualifiers, simReturnType, simName, simParameters, simBody);
 	}
 
+	/**
+	 * Builds the similarity of two identical methods from the similarities of
+	 * their identical parts, without comparing them.
+	 */
+	@Override
+	public Similarity identical(MethodDeclaration methodA, MethodDeclaration methodB) {
+		List<Similarity> simQualifiers = QualifierSimilarityEvaluator.INSTANCE.identicalList(methodA.getQualifiers(), methodB.getQualifiers());
+		Similarity simReturnType = ClassNameSimilarityEvaluator.INSTANCE.identical(methodA.getReturnType(), methodB.getReturnType());
+		Similarity simName = Similarity.eval(methodA.getName(), methodB.getName());
+		List<Similarity> simParameters = ParameterTypeDeclarationSimilarityEvaluator.INSTANCE.identicalList(methodA.getParameters(), methodB.getParameters());
+		List<Similarity> simBody = ExpressionSimilarityEvaluator.INSTANCE.identicalList(methodA.getExpressions(), methodB.getExpressions());
+		return MethodDeclarationSimilarity.build(simQualifiers, simReturnType, simName, simParameters, simBody);
+	}
+
+	/** Confirms that two methods of the same structural hash are made of the same parts, in case of a collision. */
+	private boolean sameShape(MethodDeclaration methodA, MethodDeclaration methodB) {
+		return sizer.size(methodA) == sizer.size(methodB) && methodA.getQualifiers().size() == methodB.getQualifiers().size()
+			&& methodA.getParameters().size() == methodB.getParameters().size() && methodA.getExpressions().size() == methodB.getExpressions().size();
+	}
+
 	public static class MethodDeclarationSimilarity extends CompositeSimilarity {
 
 		protected MethodDeclarationSimilarity(double same, int amount, List<Similarity> simQualifiers, Similarity simReturnType, Similarity simName,
@@ -18,7 +18,7 @@ public class PackageDeclarationSimilarityEvaluator extends SimilarityEvaluator<P
 	}
 
 	@Override
-	public Similarity eval(PackageDeclaration pack1, PackageDeclaration pack2) {
+	protected Similarity evaluate(PackageDeclaration pack1, PackageDeclaration pack2) {
 		ShowableString left = new ShowableString(pack1.getPackageDeclaration(), pack1.getLocation());
 		ShowableString right = new ShowableString(pack2.getPackageDeclaration(), pack2.getLocation());
 		return Similarity.eval(left, right);
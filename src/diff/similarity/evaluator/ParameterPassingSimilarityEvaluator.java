@@ -19,7 +19,7 @@ public class ParameterPassingSimilarityEvaluator extends SimilarityEvaluator<Par
 	}
 
 	@Override
-	public Similarity eval(ParameterPassing params1, ParameterPassing params2) {
+	protected Similarity evaluate(ParameterPassing params1, ParameterPassing params2) {
 		return Similarity.add(name, StatementSimilarityEvaluator.INSTANCE.compareWithGaps(params1.getParameters(), params2.getParameters()));
 	}
 }
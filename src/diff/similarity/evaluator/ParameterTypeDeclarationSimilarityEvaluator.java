@@ -18,7 +18,7 @@ public class ParameterTypeDeclarationSimilarityEvaluator extends SimilarityEvalu
 	}
 
 	@Override
-	public Similarity eval(ParameterTypeDeclaration params1, ParameterTypeDeclaration params2) {
+	protected Similarity evaluate(ParameterTypeDeclaration params1, ParameterTypeDeclaration params2) {
 		Similarity qualSim = QualifierSimilarityEvaluator.INSTANCE.maximumMatch(params1.getQualifiers(), params2.getQualifiers());
 		Similarity typeSim = ClassNameSimilarityEvaluator.INSTANCE.eval(params1.getType(), params2.getType());
 		Similarity nameSim = VariableReferenceSimilarityEvaluator.INSTANCE.eval(params1.getName(), params2.getName());
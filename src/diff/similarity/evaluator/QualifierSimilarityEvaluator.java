@@ -22,7 +22,7 @@ public class QualifierSimilarityEvaluator extends SimilarityEvaluator<Qualifiers
 	}
 
 	@Override
-	public Similarity eval(Qualifiers qualifier1, Qualifiers qualifier2) {
+	protected Similarity evaluate(Qualifiers qualifier1, Qualifiers qualifier2) {
 		return new LeafSimilarity<Qualifiers>("Qualifier", qualifier1.equals(qualifier2) ? 1 : 0, 1, qualifier1, qualifier2) {
 
 			@Override
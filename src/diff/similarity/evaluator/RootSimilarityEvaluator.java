@@ -60,8 +60,24 @@ public class RootSimilarityEvaluator extends SimilarityEvaluator<Root> {
 		super(RootSizer.ROOT_SIZER, "root");
 	}
 
+	/**
+	 * Compares two roots: a whole diff. Unless the caller opened one, a
+	 * {@link SimilarityMemo} is opened for the diff, and closed at its end.
+	 */
 	@Override
-	public Similarity eval(Root root1, Root root2) {
+	protected Similarity evaluate(Root root1, Root root2) {
+		if (SimilarityMemo.current() != null) {
+			return compare(root1, root2);
+		}
+		SimilarityMemo memo = SimilarityMemo.open(SimilarityMemo.DEFAULT_CAPACITY);
+		try {
+			return compare(root1, root2);
+		} finally {
+			memo.close();
+		}
+	}
+
+	private Similarity compare(Root root1, Root root2) {
 		Similarity packageSimilarity = PackageDeclarationSimilarityEvaluator.INSTANCE.eval(root1.getPackageDeclaration(), root2.getPackageDeclaration());
 		List<Similarity> importSimilarity = ImportStatementSimilarityEvaluator.INSTANCE.maximumMatchList(root1.getImports(), root2.getImports());
 		Similarity classSimilarity = ClassDeclarationSimilarityEvaluator.INSTANCE.eval(root1.getClassDeclaration(), root2.getClassDeclaration());
@@ -1,12 +1,16 @@
 package diff.similarity.evaluator;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import diff.EffortBudget;
 import diff.MaximumMatching;
 import diff.SeriesComparator;
 import diff.complexity.Showable;
 import diff.complexity.SyntaxSizer;
+import diff.similarity.ApproximateSimilarity;
+import diff.similarity.IdenticalSimilarity;
 import diff.similarity.LeftLeafSimilarity;
 import diff.similarity.NoSimilarity;
 import diff.similarity.RightLeafSimilarity;
@@ -26,7 +30,13 @@ public abstract class SimilarityEvaluator<T extends Showable> {
 	protected final String name;
 
 	/**
-	 * Evaluates similarity between two objects
+	 * Evaluates similarity between two objects.<br>
+	 * If a {@link SimilarityMemo} is open, each pair is only evaluated once.
+	 * Approximate analysis are not remembered: a later evaluation may do
+	 * better.<br>
+	 * If an {@link EffortBudget} is being spent, each evaluation is counted.
+	 * Once it has run out, pairs are not evaluated: both sides are shown apart,
+	 * flagged as approximate.
 	 * 
 	 * @param obj1
 	 *            the left side
@@ -34,7 +44,109 @@ public abstract class SimilarityEvaluator<T extends Showable> {
 	 *            the right side
 	 * @return a {@link Similarity}
 	 */
-	public abstract Similarity eval(T obj1, T obj2);
+	public final Similarity eval(T obj1, T obj2) {
+		SimilarityMemo memo = SimilarityMemo.current();
+		Similarity similarity = memo == null ? null : memo.get(this, obj1, obj2);
+		if (similarity == null) {
+			similarity = evaluateWithinBudget(obj1, obj2);
+			if (memo != null && !similarity.isApproximate()) {
+				memo.put(this, obj1, obj2, similarity);
+			}
+		}
+		return similarity;
+	}
+
+	private Similarity evaluateWithinBudget(T obj1, T obj2) {
+		EffortBudget budget = EffortBudget.current();
+		if (budget != null && !budget.consume()) {
+			Similarity apart = Similarity.add(name, new LeftLeafSimilarity<>(sizer.size(obj1), obj1), new RightLeafSimilarity<>(sizer.size(obj2), obj2));
+			return ApproximateSimilarity.of(apart);
+		}
+		return evaluate(obj1, obj2);
+	}
+
+	/**
+	 * Actually evaluates similarity between two objects
+	 * 
+	 * @param obj1
+	 *            the left side
+	 * @param obj2
+	 *            the right side
+	 * @return a {@link Similarity}
+	 */
+	protected abstract Similarity evaluate(T obj1, T obj2);
+
+	/**
+	 * Builds the similarity of two identical objects (see
+	 * {@link Showable#identical(Showable, Showable)}), without comparing them.
+	 * 
+	 * @param obj1
+	 *            the left side
+	 * @param obj2
+	 *            the right side, identical to the left side
+	 * @return a full {@link Similarity}
+	 */
+	public Similarity identical(T obj1, T obj2) {
+		int size = sizer.size(obj1) + sizer.size(obj2);
+		return new IdenticalSimilarity<>(name, size, obj1, obj2);
+	}
+
+	/**
+	 * Builds the similarities of two lists of identical objects, pair by pair,
+	 * without comparing them.
+	 * 
+	 * @param listA
+	 *            the left side
+	 * @param listB
+	 *            the right side, identical to the left side
+	 * @return a full {@link Similarity} for each pair
+	 */
+	public List<Similarity> identicalList(List<? extends T> listA, List<? extends T> listB) {
+		List<Similarity> similarities = new ArrayList<>(listA.size());
+		for (int i = 0; i < listA.size(); i++) {
+			similarities.add(identical(listA.get(i), listB.get(i)));
+		}
+		return similarities;
+	}
+
+	/**
+	 * Cheaply bounds the similarity rate two objects could reach, without
+	 * evaluating them. Used to skip hopeless pairs when matching lists: a
+	 * skipped pair is evaluated if the matching picks it on its bound.<br>
+	 * The rate of the evaluation should never exceed the bound, or the
+	 * matching may miss a better pair. By default nothing is known; see
+	 * {@link #sizeBound(int, int)} for evaluators which weigh their parts as
+	 * their sizer does.
+	 * 
+	 * @param obj1
+	 *            the left side
+	 * @param size1
+	 *            the size of the left side
+	 * @param obj2
+	 *            the right side
+	 * @param size2
+	 *            the size of the right side
+	 * @return an upper bound of the similarity rate (1.0 when unknown)
+	 */
+	public double upperBound(T obj1, int size1, T obj2, int size2) {
+		return 1;
+	}
+
+	/**
+	 * Bounds the similarity rate of two objects by their sizes: the same part
+	 * of two objects weighs at most twice the smaller one, out of both sizes.
+	 * The bound holds as long as the evaluation weighs the parts as the sizer
+	 * does.
+	 * 
+	 * @param size1
+	 *            the size of the left side
+	 * @param size2
+	 *            the size of the right side
+	 * @return an upper bound of the similarity rate
+	 */
+	protected static double sizeBound(int size1, int size2) {
+		return size1 + size2 <= 0 ? 1 : 2.0 * Math.min(size1, size2) / (size1 + size2);
+	}
 
 	/**
 	 * Evaluates the similarity between two lists, while respecting the lists'
@@ -112,6 +224,25 @@ public abstract class SimilarityEvaluator<T extends Showable> {
 		return allSimilarities;
 	}
 
+	/**
+	 * Evaluates the similarity between two lists, while respecting the lists'
+	 * order, within an effort budget.<br>
+	 * When the budget runs out, the best alignment found so far is returned,
+	 * flagged as approximate.
+	 * 
+	 * @param listA
+	 *            the left side
+	 * @param listB
+	 *            the right side
+	 * @param budget
+	 *            the effort budget
+	 * @return a {@link Similarity}
+	 */
+	public Similarity compareWithGaps(List<T> listA, List<T> listB, EffortBudget budget) {
+		List<Similarity> allSimilarities = new SeriesComparator<>(this, sizer).compareOrderlyWithGaps(listA, listB, budget);
+		return Similarity.add(name + " / list", allSimilarities);
+	}
+
 	/**
 	 * Evaluates the similarity between two lists, performing maximum matching
 	 * of elements regardless of the lists' order.
@@ -141,6 +272,25 @@ public abstract class SimilarityEvaluator<T extends Showable> {
 		return Similarity.add(name + " / list", allSimilarities);
 	}
 
+	/**
+	 * Evaluates the similarity between two lists, performing maximum matching
+	 * of elements regardless of the lists' order, within an effort budget.<br>
+	 * When the budget runs out, the best matching found so far is returned,
+	 * flagged as approximate.
+	 * 
+	 * @param listA
+	 *            the left side
+	 * @param listB
+	 *            the right side
+	 * @param budget
+	 *            the effort budget
+	 * @return a {@link Similarity}
+	 */
+	public Similarity maximumMatch(List<T> listA, List<T> listB, EffortBudget budget) {
+		List<Similarity> allSimilarities = new MaximumMatching<>(this, sizer).compare(listA, listB, budget);
+		return Similarity.add(name + " / list", allSimilarities);
+	}
+
 	/**
 	 * Evaluates similarity between optional objects.
 	 * 
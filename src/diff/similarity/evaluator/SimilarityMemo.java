@@ -0,0 +1,182 @@
+package diff.similarity.evaluator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import diff.similarity.Similarity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Remembers the similarity analysis of the pairs of objects evaluated during a
+ * diff, so that each pair is evaluated once.<br>
+ * Pairs are identified by the evaluator and the identity of both objects. The
+ * least recently used analysis are forgotten beyond a capacity.<br>
+ * A memo is opened for the current thread, and all the
+ * {@link SimilarityEvaluator}s consult it until it is closed:
+ *
+ * <pre>
+ * try (SimilarityMemo memo = SimilarityMemo.open(SimilarityMemo.DEFAULT_CAPACITY)) {
+ * 	RootSimilarityEvaluator.INSTANCE.eval(root1, root2);
+ * }
+ * </pre>
+ */
+public final class SimilarityMemo implements AutoCloseable {
+
+	/** Default capacity of a memo. */
+	public static final int DEFAULT_CAPACITY = 100_000;
+
+	private static final ThreadLocal<SimilarityMemo> CURRENT = new ThreadLocal<>();
+
+	@Getter
+	private final int capacity;
+	private final SimilarityMemo previous; // Restored when closed
+	@Getter
+	private long hits = 0;
+	@Getter
+	private long misses = 0;
+	private final Map<Pair, Similarity> cache;
+
+	private SimilarityMemo(int capacity, SimilarityMemo previous) {
+		this.capacity = capacity;
+		this.previous = previous;
+		this.cache = new LinkedHashMap<Pair, Similarity>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Pair, Similarity> eldest) {
+				return size() > SimilarityMemo.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Opens a memo for the current thread, until it is closed.
+	 *
+	 * @param capacity
+	 *            the maximum number of analysis remembered
+	 * @return the memo
+	 */
+	public static SimilarityMemo open(int capacity) {
+		SimilarityMemo memo = new SimilarityMemo(capacity, CURRENT.get());
+		CURRENT.set(memo);
+		return memo;
+	}
+
+	/**
+	 * The memo opened for the current thread.
+	 *
+	 * @return the memo, or null if none is open
+	 */
+	public static SimilarityMemo current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Does some work consulting this memo, whether it is still open or not.
+	 *
+	 * @param <R>
+	 *            the type of the result
+	 * @param work
+	 *            the work
+	 * @return the result of the work
+	 */
+	public <R> R within(Supplier<R> work) {
+		SimilarityMemo current = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			return work.get();
+		} finally {
+			if (current == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(current);
+			}
+		}
+	}
+
+	/**
+	 * Finds the analysis of a pair.
+	 *
+	 * @param evaluator
+	 *            the evaluator of the pair
+	 * @param left
+	 *            the left object
+	 * @param right
+	 *            the right object
+	 * @return the remembered analysis, or null
+	 */
+	Similarity get(SimilarityEvaluator<?> evaluator, Object left, Object right) {
+		Similarity similarity = cache.get(new Pair(evaluator, left, right));
+		if (similarity == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return similarity;
+	}
+
+	/**
+	 * Remembers the analysis of a pair.
+	 *
+	 * @param evaluator
+	 *            the evaluator of the pair
+	 * @param left
+	 *            the left object
+	 * @param right
+	 *            the right object
+	 * @param similarity
+	 *            the analysis
+	 */
+	void put(SimilarityEvaluator<?> evaluator, Object left, Object right, Similarity similarity) {
+		cache.put(new Pair(evaluator, left, right), similarity);
+	}
+
+	/**
+	 * The number of analysis remembered.
+	 *
+	 * @return a size
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityMemo[" + size() + "/" + capacity + ", hits=" + hits + ", misses=" + misses + "]";
+	}
+
+	/** A pair of objects, by identity. */
+	@AllArgsConstructor
+	private static final class Pair {
+		private final Object evaluator;
+		private final Object left;
+		private final Object right;
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(evaluator) * 31 + System.identityHashCode(left)) * 31 + System.identityHashCode(right);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Pair)) {
+				return false;
+			}
+			Pair other = (Pair) obj;
+			return evaluator == other.evaluator && left == other.left && right == other.right;
+		}
+	}
+}
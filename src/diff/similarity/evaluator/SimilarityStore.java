@@ -0,0 +1,291 @@
+package diff.similarity.evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+import diff.EffortBudget;
+import diff.complexity.Showable;
+import diff.similarity.Similarity;
+import diff.similarity.StoredSimilarity;
+import lombok.Getter;
+import tokenizer.CodeLocator.CodeLocation;
+
+/**
+ * Remembers, from one diff to the next, the similarity of the pairs of
+ * subtrees evaluated.<br>
+ * Pairs are identified by the structural hashes of both subtrees (see
+ * {@link CodeLocation#getStructuralHash()}) and by the evaluator and its
+ * version, so a pair met again in another revision is not evaluated again. Only
+ * the scores are kept: the similarity found is a {@link StoredSimilarity},
+ * which evaluates the details again if they are shown, under the
+ * {@link EffortBudget} and the {@link SimilarityMemo} of the diff which found
+ * it. Approximate analysis are not kept.<br>
+ * The store is a hash table of fixed size, mapped from its file rather than
+ * loaded in memory: each entry takes 44 bytes, and only the pages of the
+ * entries used are read. A pair may be kept in any of the
+ * {@value #BUCKET_SIZE} slots of its bucket; the least recently used pair of
+ * a full bucket is forgotten. The file is updated in place, so it may only be
+ * opened by one store at a time.<br>
+ * A store is opened for the current thread, and the evaluators consult it
+ * until it is closed:
+ *
+ * <pre>
+ * try (SimilarityStore store = SimilarityStore.open(path, SimilarityStore.DEFAULT_CAPACITY)) {
+ * 	RootSimilarityEvaluator.INSTANCE.eval(root1, root2);
+ * }
+ * </pre>
+ */
+public final class SimilarityStore implements AutoCloseable {
+
+	/** Default capacity of a store. */
+	public static final int DEFAULT_CAPACITY = 1_000_000;
+	/** Number of slots of a bucket. */
+	public static final int BUCKET_SIZE = 8;
+
+	private static final int MAGIC = 0x53445354; // "SDST"
+	// Header: magic, buckets, size, clock
+	private static final int HEADER = 4 + 4 + 4 + 8;
+	// Slot: left, right, evaluator, same, amount, last use (0 if free)
+	private static final int SLOT = 8 + 8 + 8 + 8 + 4 + 8;
+	private static final int SAME = 24;
+	private static final int AMOUNT = 32;
+	private static final int LAST_USE = 36;
+	private static final ThreadLocal<SimilarityStore> CURRENT = new ThreadLocal<>();
+
+	private final SimilarityStore previous; // Restored when closed
+	private final MappedByteBuffer table;
+	private final int buckets;
+	@Getter
+	private long hits = 0;
+	@Getter
+	private long misses = 0;
+
+	private SimilarityStore(MappedByteBuffer table, int buckets, SimilarityStore previous) {
+		this.table = table;
+		this.buckets = buckets;
+		this.previous = previous;
+	}
+
+	/**
+	 * Opens a store for the current thread, until it is closed. A missing,
+	 * unreadable file, or a file of another capacity, gives an empty store.
+	 *
+	 * @param file
+	 *            the file of the store
+	 * @param capacity
+	 *            the maximum number of pairs remembered
+	 * @return the store
+	 * @throws IOException
+	 *             if the file cannot be mapped
+	 */
+	public static SimilarityStore open(Path file, int capacity) throws IOException {
+		int buckets = Math.max(1, (capacity + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		long length = HEADER + (long) buckets * BUCKET_SIZE * SLOT;
+		if (length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Capacity too large: " + capacity);
+		}
+		Path directory = file.toAbsolutePath().getParent();
+		if (directory != null) {
+			Files.createDirectories(directory);
+		}
+		MappedByteBuffer table;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(8);
+			boolean valid = channel.size() == length && channel.read(header, 0) == header.capacity() && header.getInt(0) == MAGIC
+				&& header.getInt(4) == buckets;
+			if (!valid) {
+				channel.truncate(0); // Start afresh: the mapping extends the file with zeros
+			}
+			table = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+			if (!valid) {
+				table.putInt(0, MAGIC);
+				table.putInt(4, buckets);
+			}
+		}
+		SimilarityStore store = new SimilarityStore(table, buckets, CURRENT.get());
+		CURRENT.set(store);
+		return store;
+	}
+
+	/**
+	 * The store opened for the current thread.
+	 *
+	 * @return the store, or null if none is open
+	 */
+	public static SimilarityStore current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Finds the stored similarity of a pair.
+	 *
+	 * @param evaluator
+	 *            the evaluator of the pair
+	 * @param version
+	 *            the version of the evaluator
+	 * @param left
+	 *            the left object
+	 * @param right
+	 *            the right object
+	 * @param evaluation
+	 *            evaluates the details of the pair, if they are shown: under
+	 *            the budget and the memo of the current thread
+	 * @return the stored similarity, or null
+	 */
+	<T extends Showable> Similarity get(SimilarityEvaluator<T> evaluator, int version, T left, T right, Supplier<Similarity> evaluation) {
+		int slot = find(evaluator, version, left, right);
+		if (slot < 0) {
+			misses++;
+			return null;
+		}
+		hits++;
+		table.putLong(slot + LAST_USE, tick());
+		EffortBudget budget = EffortBudget.currentOrUnlimited();
+		SimilarityMemo memo = SimilarityMemo.current();
+		Supplier<Similarity> details = memo == null ? () -> budget.within(evaluation) : () -> memo.within(() -> budget.within(evaluation));
+		return new StoredSimilarity(table.getDouble(slot + SAME), table.getInt(slot + AMOUNT), details);
+	}
+
+	/**
+	 * Stores the similarity of a pair, unless it is approximate.
+	 *
+	 * @param evaluator
+	 *            the evaluator of the pair
+	 * @param version
+	 *            the version of the evaluator
+	 * @param left
+	 *            the left object
+	 * @param right
+	 *            the right object
+	 * @param similarity
+	 *            the analysis
+	 */
+	<T extends Showable> void put(SimilarityEvaluator<T> evaluator, int version, T left, T right, Similarity similarity) {
+		CodeLocation leftLocation = left.getLocation();
+		CodeLocation rightLocation = right.getLocation();
+		if (leftLocation == null || rightLocation == null || similarity.isApproximate()) {
+			return;
+		}
+		long leftHash = leftLocation.getStructuralHash();
+		long rightHash = rightLocation.getStructuralHash();
+		long evaluatorKey = evaluatorKey(evaluator, version);
+		int bucket = bucket(leftHash, rightHash, evaluatorKey);
+		int target = -1;
+		long oldest = Long.MAX_VALUE;
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			int slot = bucket + i * SLOT;
+			long lastUse = table.getLong(slot + LAST_USE);
+			if (lastUse != 0 && matches(slot, leftHash, rightHash, evaluatorKey)) {
+				target = slot;
+				break;
+			}
+			if (lastUse < oldest) { // Free slots first, then the least recently used
+				oldest = lastUse;
+				target = slot;
+			}
+		}
+		if (table.getLong(target + LAST_USE) == 0) {
+			table.putInt(8, size() + 1);
+		}
+		table.putLong(target, leftHash);
+		table.putLong(target + 8, rightHash);
+		table.putLong(target + 16, evaluatorKey);
+		table.putDouble(target + SAME, similarity.getSame());
+		table.putInt(target + AMOUNT, similarity.getAmount());
+		table.putLong(target + LAST_USE, tick());
+	}
+
+	private int find(SimilarityEvaluator<?> evaluator, int version, Showable left, Showable right) {
+		CodeLocation leftLocation = left.getLocation();
+		CodeLocation rightLocation = right.getLocation();
+		if (leftLocation == null || rightLocation == null) {
+			return -1;
+		}
+		long leftHash = leftLocation.getStructuralHash();
+		long rightHash = rightLocation.getStructuralHash();
+		long evaluatorKey = evaluatorKey(evaluator, version);
+		int bucket = bucket(leftHash, rightHash, evaluatorKey);
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			int slot = bucket + i * SLOT;
+			if (table.getLong(slot + LAST_USE) != 0 && matches(slot, leftHash, rightHash, evaluatorKey)) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private boolean matches(int slot, long leftHash, long rightHash, long evaluatorKey) {
+		return table.getLong(slot) == leftHash && table.getLong(slot + 8) == rightHash && table.getLong(slot + 16) == evaluatorKey;
+	}
+
+	private static long evaluatorKey(SimilarityEvaluator<?> evaluator, int version) {
+		return (long) evaluator.getClass().getName().hashCode() << 32 | version & 0xFFFFFFFFL;
+	}
+
+	/** The offset of the first slot of the bucket of a pair. */
+	private int bucket(long leftHash, long rightHash, long evaluatorKey) {
+		long hash = (leftHash * 31 + rightHash) * 31 + evaluatorKey;
+		hash ^= hash >>> 29;
+		hash *= 0xBF58476D1CE4E5B9L;
+		hash ^= hash >>> 32;
+		return HEADER + (int) Math.floorMod(hash, (long) buckets) * BUCKET_SIZE * SLOT;
+	}
+
+	/** Advances the clock of the store, used to tell the least recently used pairs. */
+	private long tick() {
+		long clock = table.getLong(12) + 1;
+		table.putLong(12, clock);
+		return clock;
+	}
+
+	/**
+	 * The number of pairs remembered.
+	 *
+	 * @return a size
+	 */
+	public int size() {
+		return table.getInt(8);
+	}
+
+	/**
+	 * The maximum number of pairs remembered.
+	 *
+	 * @return a capacity
+	 */
+	public int getCapacity() {
+		return buckets * BUCKET_SIZE;
+	}
+
+	/**
+	 * Writes the changes of the store to its file.
+	 */
+	public void save() {
+		table.force();
+	}
+
+	/**
+	 * Saves the store, and stops consulting it.
+	 */
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+		save();
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityStore[" + size() + "/" + getCapacity() + ", hits=" + hits + ", misses=" + misses + "]";
+	}
+}
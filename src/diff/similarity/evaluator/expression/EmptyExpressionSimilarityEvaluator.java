@@ -19,7 +19,7 @@ public class EmptyExpressionSimilarityEvaluator extends SimilarityEvaluator<Empt
         super(EmptyExpressionSizer.EMPTY_EXPRESSION_SIZER, "empty");
     }
 
-    public Similarity eval(EmptyExpression empty1, EmptyExpression empty2) {
+    protected Similarity evaluate(EmptyExpression empty1, EmptyExpression empty2) {
         return new ExpressionSimilarity<>(1, 1, empty1, empty2);
     }
 }
@@ -1,5 +1,6 @@
 package diff.similarity.evaluator.expression;
 
+import diff.complexity.Showable;
 import diff.complexity.expression.ExpressionSizer;
 import diff.similarity.ExpressionSimilarity;
 import diff.similarity.Similarity;
@@ -25,10 +26,10 @@ public class ExpressionSimilarityEvaluator extends SimilarityEvaluator<Expressio
         super(ExpressionSizer.EXPRESSION_SIZER, "expr");
     }
 
-    public Similarity eval(Expression expr1, Expression expr2) {
-        final boolean exactSameClass = expr1.getClass().equals(expr2.getClass());
-        final boolean bothAbstractBlocks = AbstractBlock.class.isInstance(expr1) && AbstractBlock.class.isInstance(expr2);
-        if (exactSameClass || bothAbstractBlocks) {
+    protected Similarity evaluate(Expression expr1, Expression expr2) {
+        if (Showable.identical(expr1, expr2)) {
+            return identical(expr1, expr2);
+        } else if (comparable(expr1, expr2)) {
             DualExpressionComparator<? extends Expression> firstPass = expr2.acceptExpressionVisitor(this);
             return expr1.acceptExpressionVisitor(firstPass);
         } else {
@@ -36,6 +37,26 @@ public class ExpressionSimilarityEvaluator extends SimilarityEvaluator<Expressio
         }
     }
 
+    @Override
+    public Similarity identical(Expression expr1, Expression expr2) {
+        int size = ExpressionSizer.EXPRESSION_SIZER.size(expr1, expr2);
+        return new ExpressionSimilarity<>(size, size, expr1, expr2);
+    }
+
+    @Override
+    public double upperBound(Expression expr1, int size1, Expression expr2, int size2) {
+        if (!comparable(expr1, expr2)) {
+            return 0; // Different kinds of expressions are not compared at all: nothing is the same
+        }
+        return super.upperBound(expr1, size1, expr2, size2);
+    }
+
+    private static boolean comparable(Expression expr1, Expression expr2) {
+        final boolean exactSameClass = expr1.getClass().equals(expr2.getClass());
+        final boolean bothAbstractBlocks = AbstractBlock.class.isInstance(expr1) && AbstractBlock.class.isInstance(expr2);
+        return exactSameClass || bothAbstractBlocks;
+    }
+
     @Override
     public DualExpressionComparator<EmptyExpression> visit(EmptyExpression emptyExpression) {
         return new DualExpressionComparator<EmptyExpression>(emptyExpression);
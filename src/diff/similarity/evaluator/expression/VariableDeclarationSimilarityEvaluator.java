@@ -22,8 +22,14 @@ public class VariableDeclarationSimilarityEvaluator extends SimilarityEvaluator<
 		super(VariableDeclarationSizer.VARIABLE_DECLARATION_SIZER, "var-init");
 	}
 
+	/** Bounds the similarity rate by the sizes of the two sides: a much smaller or larger declaration is hardly similar. */
 	@Override
-	public Similarity eval(VariableDeclaration var1, VariableDeclaration var2) {
+	public double upperBound(VariableDeclaration var1, int size1, VariableDeclaration var2, int size2) {
+		return sizeBound(size1, size2);
+	}
+
+	@Override
+	protected Similarity evaluate(VariableDeclaration var1, VariableDeclaration var2) {
 		Similarity qualifiersSim = QualifierSimilarityEvaluator.INSTANCE.maximumMatch(var1.getQualifiers(), var2.getQualifiers());
 		Similarity typeSim = ClassNameSimilarityEvaluator.INSTANCE.eval(var1.getType(), var2.getType());
 		Similarity nameSim = Similarity.eval(var1.getName(), var2.getName());
@@ -24,7 +24,7 @@ public class AbstractBlockSimilarityEvaluator extends SimilarityEvaluator<Abstra
 	}
 
 	@Override
-	public Similarity eval(AbstractBlock bloc1, AbstractBlock bloc2) {
+	protected Similarity evaluate(AbstractBlock bloc1, AbstractBlock bloc2) {
 		// Try to match some blocks together (while / do / for / if)
 		Similarity similarity = bloc2.acceptBlockVisitor(new TransgenderBlockSimilarityEvaluator(bloc1));
 		if (similarity != null) { // Unimplemented methods may return null
@@ -21,7 +21,7 @@ public class CatchBlockSimilarityEvaluator extends SimilarityEvaluator<CatchBloc
 	}
 
 	@Override
-	public Similarity eval(CatchBlock obj1, CatchBlock obj2) {
+	protected Similarity evaluate(CatchBlock obj1, CatchBlock obj2) {
 		Similarity exceptionTypes = ClassNameSimilarityEvaluator.INSTANCE.maximumMatch(obj1.getExceptionTypes(), obj2.getExceptionTypes());
 		Similarity exceptionName = VariableReferenceSimilarityEvaluator.INSTANCE.eval(obj1.getExceptionReference(), obj2.getExceptionReference());
 		Similarity catchBody = ExpressionSimilarityEvaluator.INSTANCE.compareWithGaps(obj1.getCatchExpressions(), obj2.getCatchExpressions());
@@ -19,7 +19,7 @@ public class FinallyBlockSimilarityEvaluator extends SimilarityEvaluator<Finally
 	}
 
 	@Override
-	public Similarity eval(FinallyBlock obj1, FinallyBlock obj2) {
+	protected Similarity evaluate(FinallyBlock obj1, FinallyBlock obj2) {
 		return ExpressionSimilarityEvaluator.INSTANCE.compareWithGaps(obj1.getFinallyExpressions(), obj2.getFinallyExpressions());
 	}
 
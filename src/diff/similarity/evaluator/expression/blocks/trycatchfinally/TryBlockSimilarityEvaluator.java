@@ -20,7 +20,7 @@ public class TryBlockSimilarityEvaluator extends SimilarityEvaluator<TryBlock> {
 	}
 
 	@Override
-	public Similarity eval(TryBlock obj1, TryBlock obj2) {
+	protected Similarity evaluate(TryBlock obj1, TryBlock obj2) {
 		Similarity resourcesSim = VariableDeclarationSimilarityEvaluator.INSTANCE.compareWithGaps(obj1.getTryWithResources(), obj2.getTryWithResources());
 		Similarity bodySim = ExpressionSimilarityEvaluator.INSTANCE.compareWithGaps(obj1.getTryExpressions(), obj2.getTryExpressions());
 		return Similarity.add("try", resourcesSim, bodySim);
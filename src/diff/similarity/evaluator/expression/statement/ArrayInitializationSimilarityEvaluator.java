@@ -27,7 +27,7 @@ public class ArrayInitializationSimilarityEvaluator extends SimilarityEvaluator<
 	}
 
 	@Override
-	public Similarity eval(ArrayInitialization array1, ArrayInitialization array2) {
+	protected Similarity evaluate(ArrayInitialization array1, ArrayInitialization array2) {
 		if (array1.getClass().equals(array2.getClass())) {
 			DualArrayInitializationComparator<? extends ArrayInitialization> dualComparator = array2.accept(this);
 			return array1.accept(dualComparator);
@@ -56,7 +56,7 @@ public class ChainedAccessSimilarityEvaluator extends SimilarityEvaluator<Chaine
 	}
 
 	@Override
-	public Similarity eval(ChainedAccess varA, ChainedAccess varB) {
+	protected Similarity evaluate(ChainedAccess varA, ChainedAccess varB) {
 		List<Similarity> chains = StatementSimilarityEvaluator.INSTANCE.strictOrderList(varA.getStatements(), varB.getStatements());
 		return ChainedAccessSimilarity.build(chains);
 	}
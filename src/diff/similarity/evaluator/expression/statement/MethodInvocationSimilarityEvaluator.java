@@ -50,7 +50,7 @@ public class MethodInvocationSimilarityEvaluator extends SimilarityEvaluator<Met
 	}
 
 	@Override
-	public Similarity eval(MethodInvocation varA, MethodInvocation varB) {
+	protected Similarity evaluate(MethodInvocation varA, MethodInvocation varB) {
 		Similarity methodNameSim = Similarity.eval(varA.getMethodName(), varB.getMethodName());
 		Similarity parameterSim = ParameterPassingSimilarityEvaluator.INSTANCE.eval(varA.getArguments(), varB.getArguments());
 		return MethodInvocationSimilarity.build(methodNameSim, parameterSim);
@@ -19,7 +19,7 @@ public class NewInstanceSimilarityEvaluator extends SimilarityEvaluator<NewInsta
         super(NewInstanceSizer.NEW_INSTANCE_SIZER, "new");
     }
 
-    public Similarity eval(NewInstance varA, NewInstance varB) {
+    protected Similarity evaluate(NewInstance varA, NewInstance varB) {
         Similarity classNameSim = ClassNameSimilarityEvaluator.INSTANCE.eval(varA.getClassName(), varB.getClassName());
         Similarity argumentSim = ParameterPassingSimilarityEvaluator.INSTANCE.eval(varA.getConstructorArguments(), varB.getConstructorArguments());
         return Similarity.add(name, classNameSim, argumentSim);
@@ -23,7 +23,7 @@ public class ReturnSimilarityEvaluator extends SimilarityEvaluator<Return> {
 	}
 
 	@Override
-	public Similarity eval(Return varA, Return varB) {
+	protected Similarity evaluate(Return varA, Return varB) {
 		if (varA.getReturnedValue().isPresent()) {
 			final Statement returnValueA = varA.getReturnedValue().get();
 			if (varB.getReturnedValue().isPresent()) {
@@ -31,7 +31,7 @@ public class StatementSimilarityEvaluator extends SimilarityEvaluator<Statement>
         super(StatementSizer.STATEMENT_SIZER, "statement");
     }
 
-    public Similarity eval(Statement stat1, Statement stat2) {
+    protected Similarity evaluate(Statement stat1, Statement stat2) {
         if (stat1.getClass().equals(stat2.getClass())) {
             DualStatementComparator<? extends Statement> statementComparator = stat2.acceptStatementVisitor(this);
             return stat1.acceptStatementVisitor(statementComparator);
@@ -17,7 +17,7 @@ public class VariableReferenceSimilarityEvaluator extends SimilarityEvaluator<Va
         super(VariableReferenceSizer.VARIABLE_REFERENCE_SIZER, "ref");
     }
 
-    public Similarity eval(VariableReference varA, VariableReference varB) {
+    protected Similarity evaluate(VariableReference varA, VariableReference varB) {
         return Similarity.eval(varA.getVariableName(), varB.getVariableName());
     }
 }
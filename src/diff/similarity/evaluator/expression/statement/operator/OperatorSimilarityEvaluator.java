@@ -23,7 +23,7 @@ public class OperatorSimilarityEvaluator extends SimilarityEvaluator<Operator>
         super(OperatorSizer.OPERATOR_SIZER, "operator");
     }
 
-    public Similarity eval(Operator operator1, Operator operator2) {
+    protected Similarity evaluate(Operator operator1, Operator operator2) {
         if (operator1.getClass().equals(operator2.getClass())) {
             DualOperatorComparator<? extends Operator> dualComparator = operator2.acceptOperatorVisitor(this);
             return operator1.acceptOperatorVisitor(dualComparator);
@@ -24,7 +24,7 @@ public class BinaryOperatorSimilarityEvaluator extends SimilarityEvaluator<Binar
 	}
 
 	@Override
-	public Similarity eval(BinaryOperator operator1, BinaryOperator operator2) {
+	protected Similarity evaluate(BinaryOperator operator1, BinaryOperator operator2) {
 		boolean sameOperator = operator1.getClass().equals(operator2.getClass());
 		Similarity operatorSim = new LeafSimilarity<BinaryOperator>("BinaryOp", sameOperator ? 1 : 0, 1, operator1, operator2) {
 
@@ -20,7 +20,7 @@ public class UnaryOperatorSimilarityEvaluator extends SimilarityEvaluator<UnaryO
         super(UnaryOperatorSizer.UNARY_OPERATOR_SIZER, "unary");
     }
 
-    public Similarity eval(UnaryOperator operator1, UnaryOperator operator2) {
+    protected Similarity evaluate(UnaryOperator operator1, UnaryOperator operator2) {
         boolean sameOperator = operator1.getClass().equals(operator2.getClass());
         Similarity operatorSim = new ExpressionSimilarity<>(sameOperator ? 1 : 0, 1, operator1, operator2);
         Statement statement1 = operator1.getTargetedStatement();
@@ -27,7 +27,7 @@ public class PrimitiveValueSimilarityEvaluator extends SimilarityEvaluator<Primi
         super(PrimitiveValueSizer.PRIMITIVE_VALUE_SIZER, "primitive");
     }
 
-    public Similarity eval(PrimitiveValue val1, PrimitiveValue val2) {
+    protected Similarity evaluate(PrimitiveValue val1, PrimitiveValue val2) {
         if (val1.getClass().equals(val2.getClass())) {
             DualPrimitiveValueComparator<? extends PrimitiveValue> dualComparator = val2.visit(this);
             return val1.visit(dualComparator);
@@ -16,6 +16,7 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +26,7 @@ import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
+import diff.EffortBudget;
 import diff.complexity.Showable;
 import diff.similarity.CompositeSimilarity;
 import diff.similarity.CompositeSimilarity.CompositeSimilarityImpl;
@@ -41,6 +43,8 @@ import diff.similarity.evaluator.ClassNameSimilarityEvaluator.ClassNameSimilarit
 import diff.similarity.evaluator.MethodDeclarationSimilarityEvaluator.MethodDeclarationSimilarity;
 import diff.similarity.evaluator.RootSimilarityEvaluator;
 import diff.similarity.evaluator.RootSimilarityEvaluator.RootSimilarity;
+import diff.similarity.evaluator.SimilarityMemo;
+import diff.similarity.evaluator.SimilarityStore;
 import diff.similarity.evaluator.expression.VariableDeclarationSimilarityEvaluator.VariableDeclarationSimilarity;
 import diff.similarity.evaluator.expression.statement.ChainedAccessSimilarityEvaluator.ChainedAccessSimilarity;
 import diff.similarity.evaluator.expression.statement.MethodInvocationSimilarityEvaluator.MethodInvocationSimilarity;
@@ -49,11 +53,14 @@ import lexeme.java.tree.Root;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import tokenizer.SymbolTable;
 
 public class ComparatorPanel extends JPanel {
 
     private static final long serialVersionUID = -6578673034938473816L;
     private static final int TAB = 30;
+    /** System property naming the file of a {@link SimilarityStore} kept from one diff to the next; none if not set. */
+    public static final String STORE_PROPERTY = "syntacticdiff.store";
 
     private static Random rand = new Random();
 
@@ -132,8 +139,9 @@ public class ComparatorPanel extends JPanel {
                 file.append(line).append('\n');
             }
         }
-        Root root1 = new JavaTokenizer("resources/JavaTokenizer.java").tokenize();
-        Root root2 = new JavaTokenizer("resources/JavaTokenizer2.java").tokenize();
+        SymbolTable symbols = new SymbolTable();
+        Root root1 = new JavaTokenizer("resources/JavaTokenizer.java", symbols).tokenize();
+        Root root2 = new JavaTokenizer("resources/JavaTokenizer2.java", symbols).tokenize();
 
         JFrame frame = new JFrame("flat file");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -153,9 +161,20 @@ public class ComparatorPanel extends JPanel {
         frame.setVisible(true);
         frame.pack();
 
-        Similarity similarity = RootSimilarityEvaluator.INSTANCE.eval(root1, root2);
+        Similarity similarity;
+        String statistics;
+        String storeFile = System.getProperty(STORE_PROPERTY);
+        SimilarityStore store = storeFile == null ? null : SimilarityStore.open(Paths.get(storeFile), SimilarityStore.DEFAULT_CAPACITY);
+        try (SimilarityMemo memo = SimilarityMemo.open(SimilarityMemo.DEFAULT_CAPACITY)) {
+            similarity = EffortBudget.ofMillis(30_000).within(() -> RootSimilarityEvaluator.INSTANCE.eval(root1, root2)); // Approximate beyond
+            statistics = store == null ? memo.toString() : memo + " " + store;
+        } finally {
+            if (store != null) {
+                store.close();
+            }
+        }
 
-        frame = new JFrame("Similarity");
+        frame = new JFrame("Similarity - " + statistics);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.add(new JScrollPane(new ComparatorPanel(similarity)));
         frame.setVisible(true);
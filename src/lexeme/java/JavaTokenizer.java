@@ -7,6 +7,7 @@ import java.util.Optional;
 
 import lexeme.java.tree.Root;
 import tokenizer.CodeLocator;
+import tokenizer.SymbolTable;
 
 /**
  * Tokenizes a String input into a series of well-known Java tokens.
@@ -14,13 +15,25 @@ import tokenizer.CodeLocator;
 public class JavaTokenizer {
 
     private final String file;
+    private final SymbolTable symbolTable;
 
     /**
      * Loads up a file, ready to be tokenized.
      * @param filePath the path to the file to be loaded.
      */
     public JavaTokenizer(String filePath) {
+        this(filePath, new SymbolTable());
+    }
+
+    /**
+     * Loads up a file, ready to be tokenized, interning its symbols in a table.
+     * Files compared together should share the same table.
+     * @param filePath the path to the file to be loaded.
+     * @param symbolTable the symbol table
+     */
+    public JavaTokenizer(String filePath, SymbolTable symbolTable) {
         this.file = readFile(filePath);
+        this.symbolTable = symbolTable;
     }
 
     private static String readFile(String filePath) {
@@ -41,8 +54,32 @@ public class JavaTokenizer {
      * @return the {@link Root} Object
      */
     public Root tokenize() {
-        Optional<Root> root = Root.build(new CodeLocator(file).branch());
-        return root.get();
+        return parse(new CodeLocator(file, symbolTable));
+    }
+
+    /**
+     * Tokenizes the loaded file, unless its tree is found in a cache. A tree parsed anew is stored in the cache.
+     * @param cache the cache of parsed trees
+     * @return the {@link Root} Object
+     */
+    public Root tokenize(ParseCache cache) {
+        CodeLocator locator = new CodeLocator(file, symbolTable);
+        Optional<Root> cached = cache.load(locator);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Root root = parse(locator);
+        cache.store(locator, root);
+        return root;
+    }
+
+    private static Root parse(CodeLocator locator) {
+        locator.setMemoizing(true);
+        try {
+            return Root.build(locator.branch()).get();
+        } finally {
+            locator.setMemoizing(false); // The trees must not keep the results of the failed attempts
+        }
     }
 
 }
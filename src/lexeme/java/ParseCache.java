@@ -0,0 +1,192 @@
+package lexeme.java;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import lexeme.java.tree.Root;
+import lombok.AllArgsConstructor;
+import tokenizer.CodeLocator;
+
+/**
+ * A directory of parsed trees, so that unchanged files are not parsed
+ * again.<br>
+ * Each tree is stored in a file named after the SHA-256 hash of the parsed
+ * code and of the {@link #PARSER_VERSION}, in the compact form of the
+ * {@link TreeSerializer}. Files are written aside then renamed, so several
+ * processes may share the directory: a reader sees either a whole entry or
+ * none. Beyond a size, the least recently used entries are deleted.<br>
+ * A missing or unreadable entry is not an error: the file is parsed again.
+ */
+public class ParseCache {
+
+	/** Version of the parser and of the tree classes. To be changed whenever they change. */
+	public static final String PARSER_VERSION = "2";
+
+	private static final int MAGIC = 0x53445054; // "SDPT"
+	private static final String EXTENSION = ".tree";
+	private static final String TEMPORARY = ".tmp";
+	private static final long STALE_TEMPORARY_MILLIS = 3_600_000L; // Left by a process which died while writing
+
+	private final Path directory;
+	private final long maxBytes;
+
+	/**
+	 * Opens a cache directory, creating it if needed.
+	 *
+	 * @param directory
+	 *            the cache directory
+	 * @param maxBytes
+	 *            the size of the entries beyond which the least recently used
+	 *            ones are evicted
+	 * @throws IOException
+	 *             if the directory cannot be created
+	 */
+	public ParseCache(Path directory, long maxBytes) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Loads the tree of a file, if it was stored.
+	 *
+	 * @param locator
+	 *            the locator of the file, to which the tree is attached
+	 * @return optionally, the tree
+	 */
+	public Optional<Root> load(CodeLocator locator) {
+		Path entry = directory.resolve(key(locator.getFileContent()) + EXTENSION);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+			if (in.readInt() != MAGIC || !PARSER_VERSION.equals(in.readUTF())) {
+				return Optional.empty();
+			}
+			Object root = TreeSerializer.read(in, locator);
+			if (!(root instanceof Root)) {
+				return Optional.empty();
+			}
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis())); // Recently used
+			return Optional.of((Root) root);
+		} catch (IOException | RuntimeException | LinkageError e) {
+			return Optional.empty(); // Missing, being evicted, corrupted, or of classes since changed: as good as missing
+		}
+	}
+
+	/**
+	 * Stores the tree of a file, then evicts the least recently used entries if
+	 * the cache is too large. Failures are ignored: the file will be parsed
+	 * again next time.
+	 *
+	 * @param locator
+	 *            the locator of the file
+	 * @param root
+	 *            its tree
+	 */
+	public void store(CodeLocator locator, Root root) {
+		String key = key(locator.getFileContent());
+		Path temporary = null;
+		try {
+			temporary = Files.createTempFile(directory, key, TEMPORARY);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+				out.writeInt(MAGIC);
+				out.writeUTF(PARSER_VERSION);
+				TreeSerializer.write(root, out);
+			}
+			Path entry = directory.resolve(key + EXTENSION);
+			try {
+				Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+			}
+			evict();
+		} catch (IOException | RuntimeException e) {
+			// Not stored
+		} finally {
+			deleteQuietly(temporary);
+		}
+	}
+
+	/** Deletes the least recently used entries until the cache fits its size. */
+	private void evict() throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		long total = 0;
+		long now = System.currentTimeMillis();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+					long modified = attributes.lastModifiedTime().toMillis();
+					if (name.endsWith(EXTENSION)) {
+						entries.add(new Entry(file, attributes.size(), modified));
+						total += attributes.size();
+					} else if (name.endsWith(TEMPORARY) && now - modified > STALE_TEMPORARY_MILLIS) {
+						deleteQuietly(file);
+					}
+				} catch (IOException e) {
+					// Deleted meanwhile by another process
+				}
+			}
+		}
+		if (total <= maxBytes) {
+			return;
+		}
+		entries.sort(Comparator.comparingLong(entry -> entry.modified));
+		for (Entry entry : entries) {
+			if (total <= maxBytes) {
+				break;
+			}
+			deleteQuietly(entry.file);
+			total -= entry.size;
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				// Deleted meanwhile, or in use: left for a later eviction
+			}
+		}
+	}
+
+	/** Hashes the code with the parser version. */
+	private static String key(String code) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(PARSER_VERSION.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest(code.getBytes(StandardCharsets.UTF_8))) {
+				key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	@AllArgsConstructor
+	private static final class Entry {
+		private final Path file;
+		private final long size;
+		private final long modified;
+	}
+
+}
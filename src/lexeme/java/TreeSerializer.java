@@ -0,0 +1,429 @@
+package lexeme.java;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import diff.similarity.SimpleSimilarity.ShowableString;
+import tokenizer.CodeLocator;
+import tokenizer.CodeLocator.CodeLocation;
+
+/**
+ * Compact binary form of the parsed trees, for the {@link ParseCache}.<br>
+ * Nodes are written field by field, by reflection, and read back the same
+ * way into an instance made by their simplest constructor, given default
+ * arguments. Strings and class names are written once, then
+ * referred to by their index. {@link CodeLocation}s are written as offsets and
+ * read back into the {@link CodeLocator} of the file, whose symbol table
+ * interns the strings of the tree.
+ */
+final class TreeSerializer {
+
+	private static final byte NULL = 0;
+	private static final byte REFERENCE = 1; // A node already written
+	private static final byte NODE = 2;
+	private static final byte STRING = 3;
+	private static final byte LIST = 4;
+	private static final byte OPTIONAL = 5;
+	private static final byte ENUM = 6;
+	private static final byte LOCATION = 7;
+	private static final byte SHOWABLE_STRING = 8;
+	private static final byte INTEGER = 9;
+	private static final byte DOUBLE = 10;
+	private static final byte BOOLEAN = 11;
+	private static final byte ARRAY = 12;
+
+	/** Serialized fields of each node class, superclass fields first. */
+	private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Constructor<?>> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+	private TreeSerializer() {
+		// Utility class
+	}
+
+	/**
+	 * Writes a tree.
+	 *
+	 * @param root
+	 *            the root of the tree
+	 * @param out
+	 *            the output
+	 * @throws IOException
+	 *             if the output fails, or the tree holds an unsupported object
+	 */
+	static void write(Object root, DataOutput out) throws IOException {
+		new Writer(out).writeValue(root);
+	}
+
+	/**
+	 * Reads a tree.
+	 *
+	 * @param in
+	 *            the input
+	 * @param locator
+	 *            the locator of the file the tree was parsed from
+	 * @return the root of the tree
+	 * @throws IOException
+	 *             if the input fails or is corrupted
+	 */
+	static Object read(DataInput in, CodeLocator locator) throws IOException {
+		return new Reader(in, locator).readValue();
+	}
+
+	private static final class Writer {
+		private final DataOutput out;
+		private final Map<String, Integer> strings = new HashMap<>();
+		private final Map<Object, Integer> nodes = new IdentityHashMap<>();
+
+		Writer(DataOutput out) {
+			this.out = out;
+		}
+
+		void writeValue(Object value) throws IOException {
+			if (value == null) {
+				out.writeByte(NULL);
+			} else if (value instanceof String) {
+				out.writeByte(STRING);
+				writeString((String) value);
+			} else if (value instanceof CodeLocation) {
+				out.writeByte(LOCATION);
+				writeLocation((CodeLocation) value);
+			} else if (value instanceof ShowableString) { // Its symbol id belongs to the table of the file
+				ShowableString string = (ShowableString) value;
+				out.writeByte(SHOWABLE_STRING);
+				writeString(string.getContent());
+				writeValue(string.getLocation());
+			} else if (value instanceof List) {
+				List<?> list = (List<?>) value;
+				out.writeByte(LIST);
+				writeVarInt(list.size());
+				for (Object item : list) {
+					writeValue(item);
+				}
+			} else if (value.getClass().isArray()) {
+				Class<?> componentType = value.getClass().getComponentType();
+				if (componentType.isPrimitive()) {
+					throw new IOException("Unsupported array of " + componentType.getName());
+				}
+				out.writeByte(ARRAY);
+				writeString(componentType.getName());
+				int length = Array.getLength(value);
+				writeVarInt(length);
+				for (int i = 0; i < length; i++) {
+					writeValue(Array.get(value, i));
+				}
+			} else if (value instanceof Optional) {
+				out.writeByte(OPTIONAL);
+				writeValue(((Optional<?>) value).orElse(null));
+			} else if (value instanceof Enum) {
+				Enum<?> constant = (Enum<?>) value;
+				out.writeByte(ENUM);
+				writeString(constant.getDeclaringClass().getName());
+				writeVarInt(constant.ordinal());
+			} else if (value instanceof Integer) {
+				out.writeByte(INTEGER);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			} else {
+				writeNode(value);
+			}
+		}
+
+		private void writeNode(Object node) throws IOException {
+			Integer reference = nodes.get(node);
+			if (reference != null) {
+				out.writeByte(REFERENCE);
+				writeVarInt(reference);
+				return;
+			}
+			Class<?> type = node.getClass();
+			if (type.getName().startsWith("java.")) {
+				throw new IOException("Unsupported object in tree: " + type.getName());
+			}
+			nodes.put(node, nodes.size());
+			out.writeByte(NODE);
+			writeString(type.getName());
+			try {
+				for (Field field : fields(type)) {
+					writeField(field, node);
+				}
+			} catch (IllegalAccessException e) {
+				throw new IOException(e);
+			}
+		}
+
+		private void writeField(Field field, Object node) throws IOException, IllegalAccessException {
+			Class<?> type = field.getType();
+			if (type == int.class) {
+				writeVarInt(field.getInt(node));
+			} else if (type == boolean.class) {
+				out.writeBoolean(field.getBoolean(node));
+			} else if (type == double.class) {
+				out.writeDouble(field.getDouble(node));
+			} else if (type == long.class) {
+				out.writeLong(field.getLong(node));
+			} else if (type == char.class) {
+				out.writeChar(field.getChar(node));
+			} else if (type.isPrimitive()) {
+				throw new IOException("Unsupported field type: " + field);
+			} else {
+				writeValue(field.get(node));
+			}
+		}
+
+		private void writeLocation(CodeLocation location) throws IOException {
+			writeVarInt(location.getStart());
+			writeVarInt(location.getEnd() - location.getStart());
+		}
+
+		private void writeString(String string) throws IOException {
+			Integer index = strings.get(string);
+			if (index != null) {
+				writeVarInt(index);
+				return;
+			}
+			writeVarInt(strings.size()); // The next index: a new string follows
+			strings.put(string, strings.size());
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			out.write(bytes);
+		}
+
+		private void writeVarInt(int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+	}
+
+	private static final class Reader {
+		private final DataInput in;
+		private final CodeLocator locator;
+		private final List<String> strings = new ArrayList<>();
+		private final List<Object> nodes = new ArrayList<>();
+
+		Reader(DataInput in, CodeLocator locator) {
+			this.in = in;
+			this.locator = locator;
+		}
+
+		Object readValue() throws IOException {
+			byte tag = in.readByte();
+			switch (tag) {
+				case NULL:
+					return null;
+				case REFERENCE:
+					return nodes.get(readVarInt());
+				case NODE:
+					return readNode();
+				case STRING:
+					return locator.getSymbolTable().canonical(readString());
+				case LIST:
+					int size = readVarInt();
+					List<Object> list = new ArrayList<>(size);
+					for (int i = 0; i < size; i++) {
+						list.add(readValue());
+					}
+					return list;
+				case ARRAY:
+					return readArray();
+				case OPTIONAL:
+					return Optional.ofNullable(readValue());
+				case ENUM:
+					Class<?> enumType = readClass();
+					Object[] constants = enumType.getEnumConstants();
+					if (constants == null) {
+						throw new IOException("Not an enum: " + enumType.getName());
+					}
+					return constants[readVarInt()];
+				case LOCATION:
+					return readLocation();
+				case SHOWABLE_STRING:
+					String content = readString();
+					return ShowableString.interned(content, (CodeLocation) readValue());
+				case INTEGER:
+					return in.readInt();
+				case DOUBLE:
+					return in.readDouble();
+				case BOOLEAN:
+					return in.readBoolean();
+				default:
+					throw new IOException("Corrupted tree: unknown tag " + tag);
+			}
+		}
+
+		private Object readNode() throws IOException {
+			Class<?> type = readClass();
+			Object node = instantiate(type);
+			nodes.add(node); // Before its fields, which may refer to it
+			try {
+				for (Field field : fields(type)) {
+					readField(field, node);
+				}
+			} catch (IllegalAccessException | IllegalArgumentException e) {
+				throw new IOException("Corrupted tree: " + type.getName(), e);
+			}
+			return node;
+		}
+
+		private Object readArray() throws IOException {
+			Class<?> componentType = readClass();
+			int length = readVarInt();
+			Object[] array = (Object[]) Array.newInstance(componentType, length);
+			try {
+				for (int i = 0; i < length; i++) {
+					array[i] = readValue();
+				}
+			} catch (ArrayStoreException e) {
+				throw new IOException("Corrupted tree: array of " + componentType.getName(), e);
+			}
+			return array;
+		}
+
+		private void readField(Field field, Object node) throws IOException, IllegalAccessException {
+			Class<?> type = field.getType();
+			if (type == int.class) {
+				field.setInt(node, readVarInt());
+			} else if (type == boolean.class) {
+				field.setBoolean(node, in.readBoolean());
+			} else if (type == double.class) {
+				field.setDouble(node, in.readDouble());
+			} else if (type == long.class) {
+				field.setLong(node, in.readLong());
+			} else if (type == char.class) {
+				field.setChar(node, in.readChar());
+			} else {
+				field.set(node, readValue());
+			}
+		}
+
+		private CodeLocation readLocation() throws IOException {
+			int start = readVarInt();
+			return locator.from(start).length(readVarInt());
+		}
+
+		private Class<?> readClass() throws IOException {
+			String name = readString();
+			try {
+				return Class.forName(name, false, TreeSerializer.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Unknown class in tree: " + name, e);
+			}
+		}
+
+		private String readString() throws IOException {
+			int index = readVarInt();
+			if (index < strings.size()) {
+				return strings.get(index);
+			}
+			byte[] bytes = new byte[readVarInt()];
+			in.readFully(bytes);
+			String string = new String(bytes, StandardCharsets.UTF_8);
+			strings.add(string);
+			return string;
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				byte b = in.readByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Corrupted tree: malformed integer");
+		}
+	}
+
+	private static Field[] fields(Class<?> type) throws IOException {
+		Field[] fields = FIELDS.get(type);
+		if (fields == null) {
+			List<Field> list = new ArrayList<>();
+			for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+				Field[] declared = c.getDeclaredFields();
+				Arrays.sort(declared, Comparator.comparing(Field::getName)); // The declaration order is not guaranteed
+				List<Field> own = new ArrayList<>();
+				for (Field field : declared) {
+					if (Modifier.isStatic(field.getModifiers())) {
+						continue;
+					} else if (field.isSynthetic()) {
+						throw new IOException("Unsupported inner class in tree: " + type.getName());
+					}
+					field.setAccessible(true);
+					own.add(field);
+				}
+				list.addAll(0, own); // Superclass fields first
+			}
+			fields = list.toArray(new Field[list.size()]);
+			FIELDS.put(type, fields);
+		}
+		return fields;
+	}
+
+	/**
+	 * Makes an instance of a node class, whose fields are then read. Its
+	 * constructor with the fewest parameters is given nulls, zeros and falses:
+	 * the constructors of the nodes only keep their arguments.
+	 */
+	private static Object instantiate(Class<?> type) throws IOException {
+		if (Modifier.isAbstract(type.getModifiers())) {
+			throw new IOException("Corrupted tree: abstract class " + type.getName());
+		}
+		try {
+			Constructor<?> constructor = CONSTRUCTORS.get(type);
+			if (constructor == null) {
+				constructor = Arrays.stream(type.getDeclaredConstructors()).min(Comparator.comparingInt(Constructor::getParameterCount)).get();
+				constructor.setAccessible(true);
+				CONSTRUCTORS.put(type, constructor);
+			}
+			Class<?>[] parameters = constructor.getParameterTypes();
+			Object[] arguments = new Object[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				arguments[i] = placeholder(parameters[i]);
+			}
+			return constructor.newInstance(arguments);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			throw new IOException("Cannot instantiate " + type.getName(), e instanceof InvocationTargetException ? e.getCause() : e);
+		}
+	}
+
+	/** A neutral argument of a type, overwritten once the fields are read. */
+	private static Object placeholder(Class<?> type) {
+		if (type.isPrimitive()) {
+			return Array.get(Array.newInstance(type, 1), 0); // The default value of the type
+		} else if (type == List.class) {
+			return new ArrayList<>();
+		} else if (type == Optional.class) {
+			return Optional.empty();
+		} else if (type == String.class) {
+			return "";
+		} else if (type.isArray()) {
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		return null;
+	}
+
+}
@@ -18,7 +18,7 @@ public class Curvy {
      * @return true if it was found
      */
     public static boolean open(CodeBranch input) {
-        Matcher matcher = open.matcher(input.getRest());
+        Matcher matcher = open.matcher(input.getRestView());
         if (matcher.lookingAt()) {
             input.advance(matcher.end());
             JavaWhitespace.skipWhitespaceAndComments(input);
@@ -35,7 +35,7 @@ public class Curvy {
      * @return true if it was found
      */
     public static boolean close(CodeBranch input) {
-        Matcher matcher = close.matcher(input.getRest());
+        Matcher matcher = close.matcher(input.getRestView());
         if (matcher.lookingAt()) {
             input.advance(matcher.end());
             JavaWhitespace.skipWhitespaceAndComments(input);
@@ -19,7 +19,7 @@ public class InLineComment {
 
     public static Optional<InLineComment> build(CodeBranch input) {
         CodeBranch fork = input.fork();
-        Matcher matcher = delimitedComment.matcher(fork.getRest());
+        Matcher matcher = delimitedComment.matcher(fork.getRestView());
         if (matcher.lookingAt()) {
             fork.advance(matcher.end());
             return Optional.of(new InLineComment(fork.commit()));
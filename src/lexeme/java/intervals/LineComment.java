@@ -20,7 +20,7 @@ public class LineComment {
 
     public static Optional<LineComment> build(CodeBranch input) {
         CodeBranch fork = input.fork();
-        Matcher matcher = lineComment.matcher(fork.getRest());
+        Matcher matcher = lineComment.matcher(fork.getRestView());
         if (matcher.lookingAt()) {
             fork.advance(matcher.end());
             return Optional.of(new LineComment(fork.getContent(), fork.commit()));
@@ -19,7 +19,7 @@ public class Parenthesis implements IntervalToken {
      * @return true if it was found
      */
     public static boolean open(CodeBranch code) {
-        Matcher open = openPattern.matcher(code.getRest());
+        Matcher open = openPattern.matcher(code.getRestView());
         if (!open.lookingAt()) {
             return false;
         }
@@ -35,7 +35,7 @@ public class Parenthesis implements IntervalToken {
      * @return true if it was found
      */
     public static boolean close(CodeBranch code) {
-        Matcher open = closePattern.matcher(code.getRest());
+        Matcher open = closePattern.matcher(code.getRestView());
         if (!open.lookingAt()) {
             return false;
         }
@@ -8,6 +8,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import diff.complexity.CachedSize;
 import diff.similarity.SimpleSimilarity.ShowableString;
 import lexeme.java.intervals.Curvy;
 import lexeme.java.tree.Qualifiers.JavaQualifier;
@@ -62,6 +63,7 @@ public class ClassDeclaration implements JavaSyntax {
 	private final List<ClassDeclaration> innerClasses;
 	private final List<ClassDeclaration> staticInnerClasses;
 	private final CodeLocation location;
+	private final CachedSize cachedSize = new CachedSize(); // Filled by the sizers
 
 	/**
 	 * Attempts to build a {@link ClassDeclaration} from the input.
@@ -180,7 +182,7 @@ public class ClassDeclaration implements JavaSyntax {
 	 * @return
 	 */
 	private static boolean expectClassKeyword(CodeBranch input) {
-		Matcher matcher = classKeyword.matcher(input.getRest());
+		Matcher matcher = classKeyword.matcher(input.getRestView());
 		if (!matcher.lookingAt()) {
 			return false;
 		}
@@ -202,7 +204,7 @@ public class ClassDeclaration implements JavaSyntax {
 	}
 
 	private static boolean matchSeparator(CodeBranch input) {
-		Matcher separatorMatcher = separatorPattern.matcher(input.getRest());
+		Matcher separatorMatcher = separatorPattern.matcher(input.getRestView());
 		if (separatorMatcher.lookingAt()) {
 			input.advance(separatorMatcher.end());
 			return true;
@@ -212,7 +214,7 @@ public class ClassDeclaration implements JavaSyntax {
 	}
 
 	private static boolean openChevron(CodeBranch input) {
-		Matcher beginMatcher = beginChevronPattern.matcher(input.getRest());
+		Matcher beginMatcher = beginChevronPattern.matcher(input.getRestView());
 		if (beginMatcher.lookingAt()) {
 			input.advance(beginMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(input);
@@ -223,7 +225,7 @@ public class ClassDeclaration implements JavaSyntax {
 	}
 
 	private static void expectEndChevron(CodeBranch input) {
-		Matcher endMatcher = endChevronPattern.matcher(input.getRest());
+		Matcher endMatcher = endChevronPattern.matcher(input.getRestView());
 		if (endMatcher.lookingAt()) {
 			input.advance(endMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(input);
@@ -233,7 +235,7 @@ public class ClassDeclaration implements JavaSyntax {
 	}
 
 	private static List<ClassName> findInterfaces(CodeBranch input) {
-		Matcher extendsMatcher = implementsPattern.matcher(input.getRest());
+		Matcher extendsMatcher = implementsPattern.matcher(input.getRestView());
 		if (extendsMatcher.lookingAt()) {
 
 			// found interfaces class
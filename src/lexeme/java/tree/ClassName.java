@@ -69,6 +69,10 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 	 * @return optionally, a class name
 	 */
 	public static Optional<ClassName> build(CodeBranch input) {
+		return input.memo(ClassName.class, ClassName::parse);
+	}
+
+	private static Optional<ClassName> parse(CodeBranch input) {
 		CodeBranch fork = input.fork();
 
 		// Class name
@@ -105,7 +109,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 			foundOne = false;
 			CodeBranch reFork = fork.fork();
 			// Open
-			Matcher beginArrayMatcher = beginArrayPattern.matcher(reFork.getRest());
+			Matcher beginArrayMatcher = beginArrayPattern.matcher(reFork.getRestView());
 			if (!beginArrayMatcher.lookingAt()) {
 				break;
 			}
@@ -113,7 +117,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 			JavaWhitespace.skipWhitespaceAndComments(reFork);
 
 			// Close
-			Matcher closeArrayMatcher = closeArrayPattern.matcher(reFork.getRest());
+			Matcher closeArrayMatcher = closeArrayPattern.matcher(reFork.getRestView());
 			if (!closeArrayMatcher.lookingAt()) {
 				return Optional.empty();
 			}
@@ -134,7 +138,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 	}
 
 	public static Optional<ClassName> find(CodeBranch input, Pattern pattern) {
-		Matcher extendsMatcher = pattern.matcher(input.getRest());
+		Matcher extendsMatcher = pattern.matcher(input.getRestView());
 		if (extendsMatcher.lookingAt()) {
 			// found super class
 			input.advance(extendsMatcher.end());
@@ -163,7 +167,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 	}
 
 	private static boolean matchSeparator(CodeBranch input) {
-		Matcher separatorMatcher = separatorPattern.matcher(input.getRest());
+		Matcher separatorMatcher = separatorPattern.matcher(input.getRestView());
 		if (separatorMatcher.lookingAt()) {
 			input.advance(separatorMatcher.end());
 			return true;
@@ -173,7 +177,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 	}
 
 	private static boolean openChevron(CodeBranch input) {
-		Matcher beginMatcher = beginChevronPattern.matcher(input.getRest());
+		Matcher beginMatcher = beginChevronPattern.matcher(input.getRestView());
 		if (beginMatcher.lookingAt()) {
 			input.advance(beginMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(input);
@@ -184,7 +188,7 @@ public class ClassName implements JavaSyntax, Structure<JavaGrammar> {
 	}
 
 	private static void expectEndChevron(CodeBranch input) {
-		Matcher endMatcher = endChevronPattern.matcher(input.getRest());
+		Matcher endMatcher = endChevronPattern.matcher(input.getRestView());
 		if (endMatcher.lookingAt()) {
 			input.advance(endMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(input);
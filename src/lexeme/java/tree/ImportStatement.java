@@ -39,7 +39,7 @@ public class ImportStatement implements Showable, Structure<JavaGrammar> {
 	 *            the list of packages
 	 */
 	public ImportStatement(List<String> packages, CodeLocation location) {
-		this.prefixPackages = new ArrayList<>(packages);
+		this.prefixPackages = intern(packages, location);
 		this.suffixClasses = new ArrayList<>();
 		this.endsWithStar = false;
 		this.location = location;
@@ -55,7 +55,7 @@ public class ImportStatement implements Showable, Structure<JavaGrammar> {
 	 *            a boolean. If false, does not end with a star.
 	 */
 	public ImportStatement(List<String> packages, boolean endsWithStar, CodeLocation location) {
-		this.prefixPackages = new ArrayList<>(packages);
+		this.prefixPackages = intern(packages, location);
 		this.suffixClasses = new ArrayList<>();
 		this.endsWithStar = endsWithStar;
 		this.location = location;
@@ -71,8 +71,8 @@ public class ImportStatement implements Showable, Structure<JavaGrammar> {
 	 *            the list of classes
 	 */
 	public ImportStatement(List<String> packages, List<String> classes, CodeLocation location) {
-		this.prefixPackages = new ArrayList<>(packages);
-		this.suffixClasses = new ArrayList<>(classes);
+		this.prefixPackages = intern(packages, location);
+		this.suffixClasses = intern(classes, location);
 		this.endsWithStar = false;
 		this.location = location;
 	}
@@ -90,12 +90,21 @@ public class ImportStatement implements Showable, Structure<JavaGrammar> {
 	 *            a boolean. If false, does not end with a star.
 	 */
 	public ImportStatement(List<String> packages, List<String> classes, boolean endsWithStar, CodeLocation location) {
-		this.prefixPackages = new ArrayList<>(packages);
-		this.suffixClasses = new ArrayList<>(classes);
+		this.prefixPackages = intern(packages, location);
+		this.suffixClasses = intern(classes, location);
 		this.endsWithStar = endsWithStar;
 		this.location = location;
 	}
 
+	/** Shares the segments with the other occurrences of the same names. */
+	private static List<String> intern(List<String> segments, CodeLocation location) {
+		List<String> interned = new ArrayList<>(segments.size());
+		for (String segment : segments) {
+			interned.add(location == null ? segment : location.getSymbolTable().canonical(segment));
+		}
+		return interned;
+	}
+
 	/**
 	 * Attempts to build an import statement
 	 * 
@@ -107,7 +116,7 @@ public class ImportStatement implements Showable, Structure<JavaGrammar> {
 		CodeBranch fork = input.fork();
 		Optional<ShowableString> importKeyword = ShowableString.fromPattern(fork, importKeywodPattern);
 		if (importKeyword.isPresent()) {
-			Matcher matcher = importStatementPattern.matcher(fork.getRest());
+			Matcher matcher = importStatementPattern.matcher(fork.getRestView());
 			if (matcher.lookingAt()) {
 				String importName = matcher.group(0);
 				// System.out.println("Import statement found: " + importName);
@@ -4,8 +4,6 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import lexeme.java.intervals.InLineComment;
-import lexeme.java.intervals.LineComment;
 import lexer.java.JavaLexer.JavaGrammar;
 import lombok.Getter;
 import tokenizer.CodeLocator.CodeBranch;
@@ -34,7 +32,7 @@ public class JavaWhitespace extends Whitespace<JavaGrammar> {
      */
     public static Optional<JavaWhitespace> build(CodeBranch input) {
         CodeBranch fork = input.fork();
-        Matcher matcher = whitespacePattern.matcher(fork.getRest());
+        Matcher matcher = whitespacePattern.matcher(fork.getRestView());
         if (matcher.lookingAt()) {
             fork.advance(matcher.end());
             return Optional.of(new JavaWhitespace(fork.commit()));
@@ -44,40 +42,13 @@ public class JavaWhitespace extends Whitespace<JavaGrammar> {
     }
 
     /**
-     * Helper method, mutates the input reference to skip any non-meaningful chars like whitespace and comments.
+     * Helper method, mutates the input reference to skip any non-meaningful chars like whitespace and comments.<br>
+     * The end of the skipped code is looked up in the structural index of the file, built once.
      * @param input the input reference to a String, will be mutated.
      */
     public static void skipWhitespaceAndComments(CodeBranch input) {
-        CodeBranch local = input.fork();
-        outer: while (true) {
-            // Skip whitespace
-            while (true) {
-                Optional<JavaWhitespace> potentialWhitespace = JavaWhitespace.build(local);
-                if (potentialWhitespace.isPresent()) {
-                    continue outer;
-                }
-                break;
-            }
-            // Skip inline comment
-            while (true) {
-                Optional<InLineComment> potentialInLineComment = InLineComment.build(local);
-                if (potentialInLineComment.isPresent()) {
-                    continue outer;
-                }
-                break;
-            }
-            // Skip line comments
-            while (true) {
-                Optional<LineComment> potentialLineComment = LineComment.build(local);
-                if (potentialLineComment.isPresent()) {
-                    continue outer;
-                }
-                break;
-            }
-            // none of the above found
-            break;
-        }
-        local.commit();
+        int position = input.getEnd();
+        input.advance(input.getLocator().nextSignificant(position) - position);
     }
 
 }
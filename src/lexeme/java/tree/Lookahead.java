@@ -0,0 +1,77 @@
+package lexeme.java.tree;
+
+import tokenizer.CodeLocator.CodeBranch;
+
+/**
+ * Looks at the next char of the input to pick, among alternatives, those that
+ * may start with it, before trying them in turn.<br>
+ * When the input is at its end, or starts with whitespace or a possible
+ * comment, which some alternatives skip first, the next char is
+ * {@link #ANY}: every alternative may start there.
+ */
+public final class Lookahead {
+
+	/** The next char tells nothing: any alternative may start there. */
+	public static final int ANY = -1;
+
+	private Lookahead() {
+		// Utility class
+	}
+
+	/**
+	 * The next char of the input.
+	 *
+	 * @param input
+	 *            the input (not mutated)
+	 * @return the char, or {@link #ANY}
+	 */
+	public static int next(CodeBranch input) {
+		CharSequence rest = input.getRestView();
+		if (rest.length() == 0) {
+			return ANY;
+		}
+		char next = rest.charAt(0);
+		return Character.isWhitespace(next) || next == '/' ? ANY : next;
+	}
+
+	/**
+	 * Tells if an alternative starting with a char may start here.
+	 *
+	 * @param next
+	 *            the next char, from {@link #next(CodeBranch)}
+	 * @param first
+	 *            the first char of the alternative
+	 * @return true if the alternative is worth trying
+	 */
+	public static boolean mayStart(int next, char first) {
+		return next == ANY || next == first;
+	}
+
+	/**
+	 * Tells if an alternative starting with a word char ("\w": a letter, a
+	 * digit or '_') may start here.
+	 *
+	 * @param next
+	 *            the next char, from {@link #next(CodeBranch)}
+	 * @return true if the alternative is worth trying
+	 */
+	public static boolean mayStartWord(int next) {
+		return next == ANY || next == '_' || next >= 'a' && next <= 'z' || next >= 'A' && next <= 'Z' || isDigit(next);
+	}
+
+	/**
+	 * Tells if an alternative starting with a digit may start here.
+	 *
+	 * @param next
+	 *            the next char, from {@link #next(CodeBranch)}
+	 * @return true if the alternative is worth trying
+	 */
+	public static boolean mayStartDigit(int next) {
+		return next == ANY || isDigit(next);
+	}
+
+	private static boolean isDigit(int next) {
+		return next >= '0' && next <= '9';
+	}
+
+}
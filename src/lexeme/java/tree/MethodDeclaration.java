@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import diff.complexity.CachedSize;
 import diff.complexity.Showable;
 import diff.similarity.SimpleSimilarity.ShowableString;
 import lexeme.java.intervals.Curvy;
@@ -32,6 +33,7 @@ public class MethodDeclaration implements Showable, Structure<JavaGrammar> {
 	private final List<ParameterTypeDeclaration> parameters;
 	private final List<Expression> expressions;
 	private final CodeLocation location;
+	private final CachedSize cachedSize = new CachedSize(); // Filled by the sizers
 
 	/**
 	 * Attempts to build a {@link MethodDeclaration}.
@@ -41,6 +43,10 @@ public class MethodDeclaration implements Showable, Structure<JavaGrammar> {
 	 * @return optionally, a {@link MethodDeclaration}
 	 */
 	public static Optional<MethodDeclaration> build(CodeBranch inputRef) {
+		return inputRef.memo(MethodDeclaration.class, MethodDeclaration::parse); // Also tried by each member of a class body
+	}
+
+	private static Optional<MethodDeclaration> parse(CodeBranch inputRef) {
 		CodeBranch defensiveCopy = inputRef.fork();
 
 		// Method properties (name, qualifiers, hierarchy)
@@ -63,7 +69,7 @@ public class MethodDeclaration implements Showable, Structure<JavaGrammar> {
 		if (!parameters.isPresent()) {
 			return Optional.empty();
 		}
-		ShowableString methodNameString = new ShowableString(methodName.get().getVariableName().getContent(), methodName.get().getLocation());
+		ShowableString methodNameString = ShowableString.interned(methodName.get().getVariableName().getContent(), methodName.get().getLocation());
 
 		// Begin method body
 		if (!Curvy.open(defensiveCopy)) {
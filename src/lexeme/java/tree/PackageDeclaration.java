@@ -34,7 +34,7 @@ public class PackageDeclaration implements Showable, Structure<JavaGrammar> {
      */
     public static Optional<PackageDeclaration> build(CodeBranch input) {
         CodeBranch fork = input.fork();
-        Matcher matcher = packageDeclarationPattern.matcher(fork.getRest());
+        Matcher matcher = packageDeclarationPattern.matcher(fork.getRestView());
         if (matcher.lookingAt()) {
             String packageName = matcher.group(0);
             // System.out.println("Package declaration found: " + packageName);
@@ -75,7 +75,7 @@ public class ParameterPassing implements Showable, Structure<JavaGrammar> {
 	}
 
 	private static boolean delimiter(CodeBranch code) {
-		Matcher separator = separatorPattern.matcher(code.getRest());
+		Matcher separator = separatorPattern.matcher(code.getRestView());
 		if (!separator.lookingAt()) {
 			return false;
 		}
@@ -113,7 +113,7 @@ public class ParameterTypeDeclaration implements Showable, Structure<JavaGrammar
 	}
 
 	private static boolean delimiter(CodeBranch code) {
-		Matcher separator = separatorPattern.matcher(code.getRest());
+		Matcher separator = separatorPattern.matcher(code.getRestView());
 		if (!separator.lookingAt()) {
 			return false;
 		}
@@ -139,7 +139,7 @@ public class Qualifiers implements Showable, Symbol<JavaGrammar> {
 		 */
 		public Optional<Qualifiers> build(CodeBranch input) {
 			CodeBranch qualifCode = input.fork();
-			Matcher matcher = pattern.matcher(qualifCode.getRest());
+			Matcher matcher = pattern.matcher(qualifCode.getRestView());
 			if (matcher.lookingAt()) {
 				qualifCode.advance(matcher.end());
 				String matchedKeyword = matcher.group(0).toUpperCase();
@@ -4,9 +4,11 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import diff.complexity.CachedSize;
 import lexeme.java.tree.JavaSyntax;
 import lexeme.java.tree.JavaSyntaxVisitor;
 import lexeme.java.tree.JavaWhitespace;
+import lexeme.java.tree.Lookahead;
 import lexeme.java.tree.expression.blocks.DoWhileBlock;
 import lexeme.java.tree.expression.blocks.ForBlock;
 import lexeme.java.tree.expression.blocks.IfBlock;
@@ -33,6 +35,7 @@ public abstract class Expression implements JavaSyntax {
 
 	private static final Pattern endOfExpressionPattern = Pattern.compile(";");
 	private final CodeLocation location;
+	private final CachedSize cachedSize = new CachedSize(); // Filled by the sizers
 
 	/**
 	 * Attempts to build an expression.
@@ -42,45 +45,62 @@ public abstract class Expression implements JavaSyntax {
 	 * @return optionally, an Expression
 	 */
 	public static Optional<? extends Expression> build(CodeBranch input) {
+		return input.memo(Expression.class, Expression::parse); // Each alternative may try it again here
+	}
+
+	private static Optional<? extends Expression> parse(CodeBranch input) {
 		Optional<CodeLocation> endOfExpression = findEndOfExpression(input);
 		if (endOfExpression.isPresent()) {
 			return Optional.of(new EmptyExpression(endOfExpression.get()));
 		}
 
+		// Only the alternatives that may start with the next char are tried
+		int next = Lookahead.next(input);
+
 		// Try to find a 'if' construct
-		Optional<IfBlock> ifBlock = IfBlock.build(input);
-		if (ifBlock.isPresent()) {
-			return ifBlock;
+		if (Lookahead.mayStart(next, 'i')) {
+			Optional<IfBlock> ifBlock = IfBlock.build(input);
+			if (ifBlock.isPresent()) {
+				return ifBlock;
+			}
 		}
 
 		// Try to find a 'try' construct
-		Optional<TryCatchFinallyBlock> tryBlock = TryCatchFinallyBlock.build(input);
-		if (tryBlock.isPresent()) {
-			return tryBlock;
+		if (Lookahead.mayStart(next, 't')) {
+			Optional<TryCatchFinallyBlock> tryBlock = TryCatchFinallyBlock.build(input);
+			if (tryBlock.isPresent()) {
+				return tryBlock;
+			}
 		}
 
 		// Try to find a 'for' construct
-		Optional<ForBlock> forBlock = ForBlock.build(input);
-		if (forBlock.isPresent()) {
-			return forBlock;
+		if (Lookahead.mayStart(next, 'f')) {
+			Optional<ForBlock> forBlock = ForBlock.build(input);
+			if (forBlock.isPresent()) {
+				return forBlock;
+			}
 		}
 
 		// Try to find a 'while' construct
-		Optional<WhileBlock> whileBlock = WhileBlock.build(input);
-		if (whileBlock.isPresent()) {
-			return whileBlock;
+		if (Lookahead.mayStart(next, 'w')) {
+			Optional<WhileBlock> whileBlock = WhileBlock.build(input);
+			if (whileBlock.isPresent()) {
+				return whileBlock;
+			}
 		}
 
 		// Try to find a 'do..while' construct
-		Optional<DoWhileBlock> doWhileBlock = DoWhileBlock.build(input);
-		if (doWhileBlock.isPresent()) {
-			return doWhileBlock;
+		if (Lookahead.mayStart(next, 'd')) {
+			Optional<DoWhileBlock> doWhileBlock = DoWhileBlock.build(input);
+			if (doWhileBlock.isPresent()) {
+				return doWhileBlock;
+			}
 		}
 
 		CodeBranch defensiveCopy = input.fork();
 
 		// Try to find a 'return' statement
-		Optional<Return> returnStatement = Return.build(defensiveCopy);
+		Optional<Return> returnStatement = Lookahead.mayStart(next, 'r') ? Return.build(defensiveCopy) : Optional.empty();
 		if (returnStatement.isPresent()) {
 			if (findEndOfExpression(defensiveCopy).isPresent()) {
 				// Commit
@@ -93,7 +113,7 @@ public abstract class Expression implements JavaSyntax {
 		}
 
 		// Try to find a variable declaration
-		Optional<? extends Expression> optional = VariableDeclaration.build(defensiveCopy);
+		Optional<? extends Expression> optional = Lookahead.mayStartWord(next) ? VariableDeclaration.build(defensiveCopy) : Optional.empty();
 		if (optional.isPresent()) {
 			if (findEndOfExpression(defensiveCopy).isPresent()) {
 				// Commit
@@ -131,7 +151,7 @@ public abstract class Expression implements JavaSyntax {
 	public static Optional<CodeLocation> findEndOfExpression(CodeBranch input) {
 		CodeBranch fork = input.fork();
 		// Expect end of declaration
-		Matcher endPattern = endOfExpressionPattern.matcher(fork.getRest());
+		Matcher endPattern = endOfExpressionPattern.matcher(fork.getRestView());
 		if (!endPattern.lookingAt()) {
 			return Optional.empty();
 		}
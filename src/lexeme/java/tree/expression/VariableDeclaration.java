@@ -41,6 +41,10 @@ public class VariableDeclaration extends Expression {
 	}
 
 	public static Optional<VariableDeclaration> build(CodeBranch inputRef) {
+		return inputRef.memo(VariableDeclaration.class, VariableDeclaration::parse);
+	}
+
+	private static Optional<VariableDeclaration> parse(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
 		// Search qualifiers
@@ -69,11 +73,11 @@ public class VariableDeclaration extends Expression {
 
 		// Variable declaration is valid, let's commit the changes to the input reference
 		return Optional.of(new VariableDeclaration(qualifiers, className,
-			new ShowableString(varName.get().getVariableName().getContent(), varName.get().getLocation()), assignement, fork.commit()));
+			ShowableString.interned(varName.get().getVariableName().getContent(), varName.get().getLocation()), assignement, fork.commit()));
 	}
 
 	private static boolean findAssignment(CodeBranch input) {
-		Matcher nameMatcher = assignmentPattern.matcher(input.getRest());
+		Matcher nameMatcher = assignmentPattern.matcher(input.getRestView());
 		if (!nameMatcher.lookingAt()) {
 			return false;
 		}
@@ -73,7 +73,7 @@ public final class CatchBlock implements Showable {
 		Optional<ClassName> exceptionType = ClassName.build(fork);
 		while (exceptionType.isPresent()) {
 			exceptionTypes.add(exceptionType.get());
-			Matcher separatorMatcher = EXCEPTION_SEPARATOR.matcher(fork.getRest());
+			Matcher separatorMatcher = EXCEPTION_SEPARATOR.matcher(fork.getRestView());
 			if (!separatorMatcher.lookingAt()) {
 				break; // No more separators
 			}
@@ -37,7 +37,7 @@ public final class FinallyBlock implements Showable {
 		CodeBranch fork = input.fork();
 
 		// Match 'finally' keyword
-		Optional<ShowableString> finallyKeyword = ShowableString.fromPattern(input, FINALLY_PATTERN);
+		Optional<ShowableString> finallyKeyword = ShowableString.fromPattern(fork, FINALLY_PATTERN);
 		if (!finallyKeyword.isPresent()) {
 			return Optional.empty();
 		}
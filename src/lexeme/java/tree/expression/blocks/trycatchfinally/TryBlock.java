@@ -84,7 +84,7 @@ public final class TryBlock implements Showable {
 	}
 
 	private static boolean findResourceSeparator(CodeBranch input) {
-		Matcher separatorMatcher = RESOURCE_SEPARATOR.matcher(input.getRest());
+		Matcher separatorMatcher = RESOURCE_SEPARATOR.matcher(input.getRestView());
 		if (!separatorMatcher.lookingAt()) {
 			return false;
 		} else {
@@ -345,7 +345,7 @@ public class ArrayDeclaration extends Statement {
 	}
 
 	private static boolean separator(CodeBranch input) {
-		Matcher matcher = separator.matcher(input.getRest());
+		Matcher matcher = separator.matcher(input.getRestView());
 		if (matcher.lookingAt()) {
 			input.advance(1);
 			JavaWhitespace.skipWhitespaceAndComments(input);
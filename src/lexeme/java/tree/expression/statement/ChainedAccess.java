@@ -68,7 +68,7 @@ public class ChainedAccess extends Statement {
 	}
 
 	private static boolean startChaining(CodeBranch input) {
-		Matcher beginMatcher = beginInvocation.matcher(input.getRest());
+		Matcher beginMatcher = beginInvocation.matcher(input.getRestView());
 		if (!beginMatcher.lookingAt()) {
 			return false;
 		} else {
@@ -37,7 +37,7 @@ public class NewInstance extends Statement {
 
 	public static Optional<NewInstance> build(CodeBranch input) {
 		CodeBranch fork = input.fork();
-		Matcher newMatcher = newPattern.matcher(fork.getRest());
+		Matcher newMatcher = newPattern.matcher(fork.getRestView());
 		if (!newMatcher.lookingAt()) {
 			return Optional.empty();
 		}
@@ -41,13 +41,13 @@ public class SelfReference extends Statement {
 	 */
 	public static Optional<SelfReference> build(CodeBranch input) {
 		CodeBranch fork = input.fork();
-		Matcher thisMatcher = thisPattern.matcher(fork.getRest());
+		Matcher thisMatcher = thisPattern.matcher(fork.getRestView());
 		if (thisMatcher.lookingAt()) {
 			fork.advance(thisMatcher.end());
 			return Optional.of(new SelfReference(true, fork.commit()));
 		}
 
-		Matcher superMatcher = superPattern.matcher(fork.getRest());
+		Matcher superMatcher = superPattern.matcher(fork.getRestView());
 		if (superMatcher.lookingAt()) {
 			fork.advance(superMatcher.end());
 			return Optional.of(new SelfReference(false, fork.commit()));
@@ -3,6 +3,7 @@ package lexeme.java.tree.expression.statement;
 import java.util.Optional;
 
 import lexeme.java.intervals.Parenthesis;
+import lexeme.java.tree.Lookahead;
 import lexeme.java.tree.expression.Expression;
 import lexeme.java.tree.expression.ExpressionVisitor;
 import lexeme.java.tree.expression.statement.operators.binary.BinaryOperator;
@@ -37,7 +38,11 @@ public abstract class Statement extends Expression {
 	 *            the input text (will be mutated if object is built)
 	 * @return optionally, a Statement
 	 */
-	public static Optional<? extends Statement> build(CodeBranch input) {// Try parenthesis grouping
+	public static Optional<? extends Statement> build(CodeBranch input) {
+		return input.memo(Statement.class, Statement::parse);
+	}
+
+	private static Optional<? extends Statement> parse(CodeBranch input) {// Try parenthesis grouping
 		CodeBranch fork = input.fork();
 		// Try a prefix operator
 		Optional<? extends Statement> prefix = PrefixUnaryOperator.buildUnaryPrefix(fork);
@@ -100,6 +105,9 @@ public abstract class Statement extends Expression {
 			return statement;
 		}
 
+		// Only the alternatives that may start with the next char are tried
+		int next = Lookahead.next(input);
+
 		// Try a base type value (int, string, float...)
 		Optional<? extends Statement> optional = PrimitiveValue.build(input);
 		if (optional.isPresent()) {
@@ -107,27 +115,33 @@ public abstract class Statement extends Expression {
 		}
 
 		// Try a new Instance()
-		optional = NewInstance.build(input);
-		if (optional.isPresent()) {
-			return optional;
+		if (Lookahead.mayStart(next, 'n')) {
+			optional = NewInstance.build(input);
+			if (optional.isPresent()) {
+				return optional;
+			}
 		}
 
 		// Try a reference to this or to super
-		optional = SelfReference.build(input);
-		if (optional.isPresent()) {
-			return optional;
+		if (Lookahead.mayStart(next, 't') || Lookahead.mayStart(next, 's')) {
+			optional = SelfReference.build(input);
+			if (optional.isPresent()) {
+				return optional;
+			}
 		}
 
-		// Try straight method invocation
-		optional = MethodInvocation.build(input);
-		if (optional.isPresent()) {
-			return optional;
-		}
-
-		// Try variable reference
-		optional = VariableReference.build(input);
-		if (optional.isPresent()) {
-			return optional;
+		if (Lookahead.mayStartWord(next)) {
+			// Try straight method invocation
+			optional = MethodInvocation.build(input);
+			if (optional.isPresent()) {
+				return optional;
+			}
+
+			// Try variable reference
+			optional = VariableReference.build(input);
+			if (optional.isPresent()) {
+				return optional;
+			}
 		}
 
 		// Nothing found
@@ -52,7 +52,7 @@ public class Assignment extends BinaryOperator {
     }
 
     static boolean find(CodeBranch input) {
-        Matcher nameMatcher = assignmentPattern.matcher(input.getRest());
+        Matcher nameMatcher = assignmentPattern.matcher(input.getRestView());
         if (!nameMatcher.lookingAt()) {
             return false;
         }
@@ -49,7 +49,7 @@ public class Different extends BinaryOperator {
     }
 
     private static boolean find(CodeBranch input) {
-        Matcher nameMatcher = operatorPattern.matcher(input.getRest());
+        Matcher nameMatcher = operatorPattern.matcher(input.getRestView());
         if (!nameMatcher.lookingAt()) {
             return false;
         }
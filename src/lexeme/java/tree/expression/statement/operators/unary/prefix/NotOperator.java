@@ -46,7 +46,7 @@ public class NotOperator extends PrefixUnaryOperator {
 	}
 
 	static boolean find(CodeBranch input) {
-		Matcher nameMatcher = operatorPattern.matcher(input.getRest());
+		Matcher nameMatcher = operatorPattern.matcher(input.getRestView());
 		if (!nameMatcher.lookingAt()) {
 			return false;
 		}
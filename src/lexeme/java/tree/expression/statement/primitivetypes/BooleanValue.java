@@ -37,7 +37,7 @@ public class BooleanValue extends PrimitiveValue {
 	 */
 	public static Optional<BooleanValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
-		Matcher stringMatcher = booleanPattern.matcher(fork.getRest());
+		Matcher stringMatcher = booleanPattern.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			boolean val = Boolean.parseBoolean(stringMatcher.group(0));
 			fork.advance(stringMatcher.end());
@@ -36,10 +36,10 @@ public class CharValue extends PrimitiveValue {
 	 */
 	public static Optional<CharValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
-		Matcher stringMatcher = charPattern.matcher(fork.getRest());
+		Matcher stringMatcher = charPattern.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			fork.advance(stringMatcher.end());
-			JavaWhitespace.skipWhitespaceAndComments(inputRef);
+			JavaWhitespace.skipWhitespaceAndComments(fork);
 			return Optional.of(new CharValue(stringMatcher.group(1), fork.commit()));
 		} else {
 			return Optional.empty();
@@ -40,7 +40,7 @@ public class DoubleValue extends PrimitiveValue {
 	public static Optional<DoubleValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
-		Matcher stringMatcher = numPattern1.matcher(fork.getRest());
+		Matcher stringMatcher = numPattern1.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			double val = Double.parseDouble(stringMatcher.group(0));
 			boolean isDouble = stringMatcher.group(2).isEmpty() || stringMatcher.group(2).toLowerCase().equals("d");
@@ -48,7 +48,7 @@ public class DoubleValue extends PrimitiveValue {
 			JavaWhitespace.skipWhitespaceAndComments(fork);
 			return Optional.of(new DoubleValue(val, isDouble, fork.commit()));
 		}
-		stringMatcher = numPattern2.matcher(fork.getRest());
+		stringMatcher = numPattern2.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			double val = Double.parseDouble(stringMatcher.group(0));
 			boolean isDouble = stringMatcher.group(2).isEmpty() || stringMatcher.group(2).toLowerCase().equals("d");
@@ -38,7 +38,7 @@ public class IntegerValue extends PrimitiveValue {
 	public static Optional<IntegerValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
-		Matcher stringMatcher = decimalPattern.matcher(fork.getRest());
+		Matcher stringMatcher = decimalPattern.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			int val = Integer.parseInt(stringMatcher.group(1));
 			boolean asLong = !stringMatcher.group(2).isEmpty();
@@ -34,7 +34,7 @@ public class NullValue extends PrimitiveValue {
 	public static Optional<NullValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
-		Matcher stringMatcher = intPattern.matcher(fork.getRest());
+		Matcher stringMatcher = intPattern.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			fork.advance(stringMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(fork);
@@ -2,6 +2,7 @@ package lexeme.java.tree.expression.statement.primitivetypes;
 
 import java.util.Optional;
 
+import lexeme.java.tree.Lookahead;
 import lexeme.java.tree.expression.statement.Statement;
 import lexeme.java.tree.expression.statement.StatementVisitor;
 import lexer.java.JavaLexer.JavaGrammar;
@@ -22,7 +23,8 @@ public abstract class PrimitiveValue extends Statement implements Word<JavaGramm
 	}
 
 	/**
-	 * Attempts to build any primitive.
+	 * Attempts to build any primitive. Only the primitives that may start
+	 * with the next char are tried.
 	 * 
 	 * @param inputRef
 	 *            the mutable input text (is modified if the primitive is
@@ -30,29 +32,44 @@ public abstract class PrimitiveValue extends Statement implements Word<JavaGramm
 	 * @return optionally, the primitive
 	 */
 	public static Optional<? extends PrimitiveValue> build(CodeBranch inputRef) {
-		Optional<? extends PrimitiveValue> opt = BooleanValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		int next = Lookahead.next(inputRef);
+		Optional<? extends PrimitiveValue> opt;
+		if (Lookahead.mayStart(next, 't') || Lookahead.mayStart(next, 'f')) {
+			opt = BooleanValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
-		opt = NullValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		if (Lookahead.mayStart(next, 'n')) {
+			opt = NullValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
-		opt = IntegerValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		boolean numeric = Lookahead.mayStartDigit(next) || Lookahead.mayStart(next, '-');
+		if (numeric) {
+			opt = IntegerValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
-		opt = DoubleValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		if (numeric || Lookahead.mayStart(next, '.')) {
+			opt = DoubleValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
-		opt = CharValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		if (Lookahead.mayStart(next, '\'')) {
+			opt = CharValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
-		opt = StringValue.build(inputRef);
-		if (opt.isPresent()) {
-			return opt;
+		if (Lookahead.mayStart(next, '"')) {
+			opt = StringValue.build(inputRef);
+			if (opt.isPresent()) {
+				return opt;
+			}
 		}
 		return Optional.empty();
 	}
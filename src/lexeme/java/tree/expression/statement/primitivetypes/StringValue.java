@@ -27,7 +27,7 @@ public class StringValue extends PrimitiveValue {
 
 	public StringValue(String stringContent, CodeLocation location) {
 		super(location);
-		this.stringContent = stringContent;
+		this.stringContent = location == null ? stringContent : location.getSymbolTable().canonical(stringContent);
 	}
 
 	/**
@@ -41,7 +41,7 @@ public class StringValue extends PrimitiveValue {
 	public static Optional<StringValue> build(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
-		Matcher stringMatcher = stringPattern.matcher(fork.getRest());
+		Matcher stringMatcher = stringPattern.matcher(fork.getRestView());
 		if (stringMatcher.lookingAt()) {
 			fork.advance(stringMatcher.end());
 			JavaWhitespace.skipWhitespaceAndComments(fork);
@@ -55,7 +55,7 @@ public class StringValue extends PrimitiveValue {
 	private static Optional<PrimitiveValue> matchString(CodeBranch inputRef) {
 		CodeBranch fork = inputRef.fork();
 
-		Matcher start = quotePattern.matcher(fork.getRest());
+		Matcher start = quotePattern.matcher(fork.getRestView());
 		if (!start.lookingAt()) {
 			return Optional.empty();
 		}
@@ -63,19 +63,19 @@ public class StringValue extends PrimitiveValue {
 		fork.advance(start.end());
 
 		while (true) {
-			Matcher endOfString = endOfStringPattern.matcher(fork.getRest());
+			Matcher endOfString = endOfStringPattern.matcher(fork.getRestView());
 			if (endOfString.lookingAt()) {
 				fork.advance(endOfString.end());
 				break; // End of String definition
 			}
 
-			Matcher endOfLine = endOfLinePattern.matcher(fork.getRest());
+			Matcher endOfLine = endOfLinePattern.matcher(fork.getRestView());
 			if (endOfLine.lookingAt()) {
 				return Optional.empty(); // Illegal end of line inside String definition
 			}
 
 			// Advance 1 char
-			char advance = fork.getRest().charAt(0);
+			char advance = fork.getRestView().charAt(0);
 			content.append(advance);
 			fork.advance(1);
 		}
@@ -0,0 +1,98 @@
+package lexer;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import tokenizer.TokenStream;
+import tokenizer.TokenType;
+
+/**
+ * The FIRST set of a {@link StructureLexer}: the {@link TokenType}s its structure may start with, and whether it may
+ * be found without reading any token.<br>
+ * A lexer which cannot tell, like a lambda, may start with {@link #ANY} token.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FirstSet {
+
+    /** Any token, or none. */
+    public static final FirstSet ANY = new FirstSet(EnumSet.allOf(TokenType.class), true);
+
+    /** No token: the FIRST set of an empty sequence. */
+    public static final FirstSet EMPTY = new FirstSet(EnumSet.noneOf(TokenType.class), true);
+
+    /** Nothing: the FIRST set of no alternative. */
+    public static final FirstSet NONE = new FirstSet(EnumSet.noneOf(TokenType.class), false);
+
+    private final Set<TokenType> types;
+    private final boolean nullable;
+
+    /**
+     * The FIRST set of a single token.
+     *
+     * @param type the type of the token
+     * @return the FIRST set
+     */
+    public static FirstSet of(TokenType type) {
+        return new FirstSet(EnumSet.of(type), false);
+    }
+
+    /**
+     * The FIRST set of this structure, or another one.
+     *
+     * @param other the FIRST set of the other structure
+     * @return the FIRST set of the alternative
+     */
+    public FirstSet or(FirstSet other) {
+        EnumSet<TokenType> union = EnumSet.noneOf(TokenType.class);
+        union.addAll(types);
+        union.addAll(other.types);
+        return new FirstSet(union, nullable || other.nullable);
+    }
+
+    /**
+     * The FIRST set of this structure, followed by another one.
+     *
+     * @param next the FIRST set of the next structure
+     * @return the FIRST set of the sequence
+     */
+    public FirstSet then(FirstSet next) {
+        return nullable ? new FirstSet(or(next).types, next.nullable) : this;
+    }
+
+    /**
+     * The FIRST set of this structure, or nothing: a structure which may be missing.
+     *
+     * @return the FIRST set
+     */
+    public FirstSet orEmpty() {
+        return new FirstSet(types, true);
+    }
+
+    /**
+     * Tells if this structure may start at a token, or at the end of the stream.
+     *
+     * @param next the type of the next token, from {@link #next(TokenStream)}
+     * @return true if the structure is worth trying
+     */
+    public boolean mayStart(TokenType next) {
+        return nullable || types.contains(next);
+    }
+
+    /**
+     * The type of the next token of a stream.
+     *
+     * @param input the stream (not advanced)
+     * @return the type, or {@link TokenType#END_OF_STREAM} at the end
+     */
+    public static TokenType next(TokenStream<?> input) {
+        return input.hasNext() ? input.peek().getTokenType() : TokenType.END_OF_STREAM;
+    }
+
+    @Override
+    public String toString() {
+        return types + (nullable ? " or nothing" : "");
+    }
+
+}
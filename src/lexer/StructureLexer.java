@@ -21,4 +21,13 @@ public interface StructureLexer<G extends Grammar, S extends Structure<G>> {
      */
     Optional<? extends S> lex(TokenStream<G> input);
 
+    /**
+     * The tokens the structure may start with, so that it is only tried where it may be found. Unless overridden, any
+     * token may start it.
+     * @return the {@link FirstSet}
+     */
+    default FirstSet first() {
+        return FirstSet.ANY;
+    }
+
 }
@@ -1,15 +1,20 @@
 package lexer.usual.structure;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.Structure;
 import lexer.StructureLexer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import tokenizer.TokenStream;
+import tokenizer.TokenType;
 
 /**
  * A structure representing alternatives of other structure. Can A, B, or C.
@@ -24,28 +29,45 @@ public class AlternativeStructure<G extends Grammar, S extends Structure<G>> imp
     private final S structure;
 
     /**
-     * Constructs {@link AlternativeStructure}s given alternative {@link StructureLexer}s.
+     * Constructs {@link AlternativeStructure}s given alternative {@link StructureLexer}s.<br>
+     * Only the alternatives whose {@link FirstSet} holds the type of the next token are tried, and the result at each
+     * index of the stream is remembered.
      *
      * @param <G> a {@link Grammar}
      * @param <S> the alternative structure's common root type
      */
-    @AllArgsConstructor
     public static class AlternativeStructureFinder<G extends Grammar, S extends Structure<G>> implements StructureLexer<G, S> {
 
         private final List<StructureLexer<G, ? extends S>> finders = new ArrayList<>();
+        private final Map<TokenType, List<StructureLexer<G, ? extends S>>> viable = new EnumMap<>(TokenType.class);
+        private FirstSet first = null;
+        private boolean computingFirst = false;
 
         /**
-         * Builds an {@link AlternativeStructure.AlternativeStructureFinder} given a series of alternative {@link StructureLexer}s
-         * @param finders the {@link StructureLexer}s
+         * Builds an {@link AlternativeStructure.AlternativeStructureFinder} with no alternative yet.
+         */
+        public AlternativeStructureFinder() {
+            // Alternatives are added in turn
+        }
+
+        /**
+         * Adds an alternative, tried after the previous ones.
+         * @param finder the {@link StructureLexer}
          */
         public void addAlternative(StructureLexer<G, ? extends S> finder) {
             this.finders.add(finder);
+            this.viable.clear();
+            this.first = null;
         }
 
         @Override
         public Optional<S> lex(TokenStream<G> input) {
+            return input.memo(this, this::lexAlternatives);
+        }
+
+        private Optional<S> lexAlternatives(TokenStream<G> input) {
             TokenStream<G> fork = input.fork();
-            for (StructureLexer<G, ? extends S> finder : finders) {
+            for (StructureLexer<G, ? extends S> finder : viable(FirstSet.next(input))) {
                 Optional<? extends S> match = finder.lex(fork);
                 if (match.isPresent()) {
                     fork.commit();
@@ -55,6 +77,31 @@ public class AlternativeStructure<G extends Grammar, S extends Structure<G>> imp
             return Optional.empty();
         }
 
+        /** The alternatives that may start with a type of token, in order. */
+        private List<StructureLexer<G, ? extends S>> viable(TokenType next) {
+            return viable.computeIfAbsent(next, type -> finders.stream().filter(finder -> finder.first().mayStart(type)).collect(Collectors.toList()));
+        }
+
+        @Override
+        public FirstSet first() {
+            if (first == null) {
+                if (computingFirst) {
+                    return FirstSet.ANY; // A recursive grammar: assume anything
+                }
+                computingFirst = true;
+                try {
+                    FirstSet alternatives = FirstSet.NONE;
+                    for (StructureLexer<G, ? extends S> finder : finders) {
+                        alternatives = alternatives.or(finder.first());
+                    }
+                    first = alternatives;
+                } finally {
+                    computingFirst = false;
+                }
+            }
+            return first;
+        }
+
     }
 
 }
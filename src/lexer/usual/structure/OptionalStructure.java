@@ -2,6 +2,7 @@ package lexer.usual.structure;
 
 import java.util.Optional;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.Structure;
 import lexer.StructureLexer;
@@ -41,6 +42,13 @@ public class OptionalStructure<G extends Grammar, S extends Structure<G>> implem
 
         @Override
         public Optional<OptionalStructure<G, S>> lex(TokenStream<G> input) {
+            if (!finder.first().mayStart(FirstSet.next(input))) {
+                return Optional.empty();
+            }
+            return input.memo(this, this::lexOptional);
+        }
+
+        private Optional<OptionalStructure<G, S>> lexOptional(TokenStream<G> input) {
             TokenStream<G> fork = input.fork();
             Optional<? extends Structure<G>> match = finder.lex(fork);
             if (match.isPresent()) {
@@ -51,6 +59,11 @@ public class OptionalStructure<G extends Grammar, S extends Structure<G>> implem
             }
         }
 
+        @Override
+        public FirstSet first() {
+            return finder.first();
+        }
+
     }
 
 }
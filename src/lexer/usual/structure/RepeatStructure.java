@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.Structure;
 import lexer.StructureLexer;
@@ -40,7 +41,9 @@ public class RepeatStructure<G extends Grammar, S extends Structure<G>> implemen
     }
 
     /**
-     * Finds a repeated {@link Structure} by repeatedly applying a {@link StructureLexer}.
+     * Finds a repeated {@link Structure} by repeatedly applying a {@link StructureLexer}.<br>
+     * The structure is only tried where its {@link FirstSet} holds the type of the next token, and the result at each
+     * index of the stream is remembered.
      *
      * @param <G> a {@link Grammar}
      * @param <S> the type of repeated {@link Structure} that is sought
@@ -55,9 +58,13 @@ public class RepeatStructure<G extends Grammar, S extends Structure<G>> implemen
 
         @Override
         public Optional<? extends RepeatStructure<G, S>> lex(TokenStream<G> input) {
+            return input.memo(this, this::lexRepetitions);
+        }
+
+        private Optional<? extends RepeatStructure<G, S>> lexRepetitions(TokenStream<G> input) {
             TokenStream<G> fork = input.fork();
             List<S> found = new ArrayList<>();
-            while (true) {
+            while (finder.first().mayStart(FirstSet.next(fork))) {
                 Optional<? extends S> match = finder.lex(fork);
                 if (match.isPresent()) {
                     found.add(match.get());
@@ -68,5 +75,10 @@ public class RepeatStructure<G extends Grammar, S extends Structure<G>> implemen
             fork.commit();
             return Optional.of(new RepeatStructure<G, S>(found));
         }
+
+        @Override
+        public FirstSet first() {
+            return finder.first().orEmpty();
+        }
     }
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.Structure;
 import lexer.StructureLexer;
@@ -71,16 +72,28 @@ public class SequenceStructure<G extends Grammar> implements Structure<G> {
     }
 
     /**
-     * {@link StructureLexer} that can lex a sequence.
+     * {@link StructureLexer} that can lex a sequence.<br>
+     * It is only tried where its {@link FirstSet} holds the type of the next token, and the result at each index of the
+     * stream is remembered.
      *
      * @param <G> a {@link Grammar}
      */
-    @AllArgsConstructor
     public static class SequenceStructureLexer<G extends Grammar> implements StructureLexer<G, SequenceStructure<G>> {
 
         private final String name;
 
         private final List<LexerAndClass<G, Structure<G>>> finders = new ArrayList<>();
+        private FirstSet first = null;
+        private boolean computingFirst = false;
+
+        /**
+         * Builds an empty sequence lexer.
+         * 
+         * @param name the name of the sequence
+         */
+        public SequenceStructureLexer(String name) {
+            this.name = name;
+        }
 
         /**
          * Add a lexer in the sequence. The lexers will be called in-order.
@@ -92,10 +105,18 @@ public class SequenceStructure<G extends Grammar> implements Structure<G> {
         @SuppressWarnings("unchecked")
         public <S extends Structure<G>> void addLexer(Class<S> structureClass, StructureLexer<G, S> lexer) {
             finders.add((LexerAndClass<G, Structure<G>>) new LexerAndClass<G, S>(lexer, structureClass));
+            first = null;
         }
 
         @Override
         public Optional<SequenceStructure<G>> lex(TokenStream<G> input) {
+            if (!first().mayStart(FirstSet.next(input))) {
+                return Optional.empty();
+            }
+            return input.memo(this, this::lexSequence);
+        }
+
+        private Optional<SequenceStructure<G>> lexSequence(TokenStream<G> input) {
             TokenStream<G> fork = input.fork();
             SequenceStructure<G> seq = new SequenceStructure<>();
             for (LexerAndClass<G, ? extends Structure<G>> lexerAndClass : finders) {
@@ -111,6 +132,26 @@ public class SequenceStructure<G extends Grammar> implements Structure<G> {
             return Optional.of(seq);
         }
 
+        @Override
+        public FirstSet first() {
+            if (first == null) {
+                if (computingFirst) {
+                    return FirstSet.ANY; // A recursive grammar: assume anything
+                }
+                computingFirst = true;
+                try {
+                    FirstSet sequence = FirstSet.EMPTY;
+                    for (LexerAndClass<G, Structure<G>> lexerAndClass : finders) {
+                        sequence = sequence.then(lexerAndClass.getLexer().first());
+                    }
+                    first = sequence;
+                } finally {
+                    computingFirst = false;
+                }
+            }
+            return first;
+        }
+
         @Override
         public String toString() {
             return name;
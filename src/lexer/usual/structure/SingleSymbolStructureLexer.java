@@ -3,6 +3,7 @@ package lexer.usual.structure;
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.StructureLexer;
 import lombok.AllArgsConstructor;
@@ -38,6 +39,11 @@ public class SingleSymbolStructureLexer<G extends Grammar> implements StructureL
         }
     }
 
+    @Override
+    public FirstSet first() {
+        return FirstSet.of(TokenType.SYMBOL);
+    }
+
     protected Symbol<G> build(Symbol<G> token) {
         return token;
     }
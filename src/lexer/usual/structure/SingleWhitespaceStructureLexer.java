@@ -3,6 +3,7 @@ package lexer.usual.structure;
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.StructureLexer;
 import lombok.AllArgsConstructor;
@@ -39,6 +40,11 @@ public class SingleWhitespaceStructureLexer<G extends Grammar> implements Struct
         }
     }
 
+    @Override
+    public FirstSet first() {
+        return FirstSet.of(TokenType.WHITESPACE);
+    }
+
     protected Whitespace<G> build(Whitespace<G> token) {
         return token;
     }
@@ -3,6 +3,7 @@ package lexer.usual.structure;
 import java.util.Optional;
 import java.util.function.Predicate;
 
+import lexer.FirstSet;
 import lexer.Grammar;
 import lexer.StructureLexer;
 import lombok.AllArgsConstructor;
@@ -38,6 +39,11 @@ public class SingleWordStructureLexer<G extends Grammar> implements StructureLex
         }
     }
 
+    @Override
+    public FirstSet first() {
+        return FirstSet.of(TokenType.WORD);
+    }
+
     protected Word<G> build(Word<G> token) {
         return token;
     }
@@ -1,14 +1,108 @@
 package tokenizer;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 
-@AllArgsConstructor
 public class CodeLocator {
 
 	final String fileContent;
+	final int offset; // Offset of the content in the file, for a window
+	private final SymbolTable symbolTable;
+	private StructuralIndex structuralIndex; // Built on demand
+	private Map<Object, Map<Integer, Parsed>> memo = null; // Results of the rules, by offset, while memoizing
+
+	public CodeLocator(String fileContent) {
+		this(fileContent, new SymbolTable());
+	}
+
+	/**
+	 * Locates code in a file, interning its symbols in a table which may be
+	 * shared with other files.
+	 * 
+	 * @param fileContent
+	 *            the file content
+	 * @param symbolTable
+	 *            the symbol table
+	 */
+	public CodeLocator(String fileContent, SymbolTable symbolTable) {
+		this(fileContent, 0, symbolTable);
+	}
+
+	/**
+	 * Locates code in a window of a file: only a part of the file is held,
+	 * but the locations are offsets in the whole file. Locations must lie in
+	 * the window.
+	 * 
+	 * @param windowContent
+	 *            the content of the window
+	 * @param offset
+	 *            the offset of the window in the file
+	 * @param symbolTable
+	 *            the symbol table
+	 */
+	public CodeLocator(String windowContent, int offset, SymbolTable symbolTable) {
+		this.fileContent = windowContent;
+		this.offset = offset;
+		this.symbolTable = symbolTable;
+	}
+
+	/**
+	 * The content of the file (or of the window).
+	 * 
+	 * @return the whole code
+	 */
+	public String getFileContent() {
+		return fileContent;
+	}
+
+	/**
+	 * The offset of the content in the file: 0, unless this is a window.
+	 * 
+	 * @return an offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * The table interning the symbols of the file.
+	 * 
+	 * @return the symbol table
+	 */
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
+	/**
+	 * Indexes the significant code of the file, on first call.
+	 * 
+	 * @return the index
+	 */
+	public StructuralIndex getStructuralIndex() {
+		if (structuralIndex == null) {
+			structuralIndex = new StructuralIndex(fileContent);
+		}
+		return structuralIndex;
+	}
+
+	/**
+	 * Skips the whitespace and comments starting at an offset, with the
+	 * structural index.
+	 * 
+	 * @param position
+	 *            an offset in the file
+	 * @return the first offset at or after it which is not whitespace or a
+	 *         comment
+	 */
+	public int nextSignificant(int position) {
+		return getStructuralIndex().nextSignificant(position - offset) + offset;
+	}
 
 	@Getter
 	@AllArgsConstructor
@@ -18,30 +112,77 @@ public class CodeLocator {
 		public final int end;
 
 		public String getCode() {
-			return fileContent.substring(start, end);
+			return fileContent.substring(start - offset, end - offset);
 		}
 
 		public CodeLocation merge(CodeLocation location) {
 			return new CodeLocation(Math.min(start, location.start), Math.max(end, location.end));
 		}
+
+		/**
+		 * Hashes the code of this location, ignoring whitespace and comments.
+		 * 
+		 * @return a 64-bit hash
+		 */
+		public long getStructuralHash() {
+			return getStructuralIndex().hash(start - offset, end - offset);
+		}
+
+		/**
+		 * Counts the significant chars of this location, ignoring whitespace
+		 * and comments: a cheap check of two equal structural hashes.
+		 * 
+		 * @return a number of chars
+		 */
+		public int getStructuralLength() {
+			return getStructuralIndex().length(start - offset, end - offset);
+		}
+
+		/**
+		 * The table interning the symbols of the file.
+		 * 
+		 * @return the symbol table
+		 */
+		public SymbolTable getSymbolTable() {
+			return symbolTable;
+		}
+	}
+
+	/**
+	 * Starts or stops remembering the results of the rules parsed with
+	 * {@link CodeBranch#memo(Object, Function)}: a rule parsed again at the
+	 * same offset, as when alternatives are tried in turn, gives the same
+	 * result at once. The results are dropped when stopping, so they should
+	 * not outlive the parse.
+	 * 
+	 * @param memoizing
+	 *            true to start, false to stop
+	 */
+	public void setMemoizing(boolean memoizing) {
+		memo = memoizing ? new IdentityHashMap<>() : null;
 	}
 
 	public CodeBranch branch() {
-		return new CodeBranch();
+		return new CodeBranch(null, offset, 0);
 	}
 
-	@NoArgsConstructor(access = AccessLevel.PRIVATE)
+	/**
+	 * A span of the file, starting where its parent branch ended when it was
+	 * forked. Advancing a branch does not move its parent until it is
+	 * committed; dropping it rolls back.
+	 */
 	@AllArgsConstructor(access = AccessLevel.PRIVATE)
 	public class CodeBranch {
 		CodeBranch parent;
+		int start; // Absolute offset in the file
 		int cursor;
 
 		public int getStart() {
-			return parent == null ? 0 : parent.getEnd();
+			return start;
 		}
 
 		public int getEnd() {
-			return getStart() + cursor;
+			return start + cursor;
 		}
 
 		/**
@@ -50,24 +191,44 @@ public class CodeLocator {
 		 * @return the code inside this branch span
 		 */
 		public String getContent() {
-			return fileContent.substring(getStart(), getEnd());
+			return fileContent.substring(getStart() - offset, getEnd() - offset);
 		}
 
 		public CodeLocation getLocation() {
 			return from(getStart()).to(getEnd());
 		}
 
+		/**
+		 * Returns the locator of the file this branch spans
+		 * 
+		 * @return the code locator
+		 */
+		public CodeLocator getLocator() {
+			return CodeLocator.this;
+		}
+
 		/**
 		 * Returns all the remaining code after the cursor
 		 * 
 		 * @return all code after the cursor
 		 */
 		public String getRest() {
-			return fileContent.substring(getEnd());
+			return fileContent.substring(getEnd() - offset);
+		}
+
+		/**
+		 * Returns all the remaining code after the cursor, as a view over the
+		 * file: nothing is copied. To be preferred to {@link #getRest()} for
+		 * matching patterns.
+		 * 
+		 * @return all code after the cursor
+		 */
+		public CharSequence getRestView() {
+			return new TextView(fileContent, getEnd() - offset, fileContent.length());
 		}
 
 		public CodeBranch fork() {
-			return new CodeBranch(this, 0);
+			return new CodeBranch(this, getEnd(), 0);
 		}
 
 		public void advance(int nbCar) {
@@ -77,11 +238,40 @@ public class CodeLocator {
 		public CodeLocation commit() {
 			CodeLocation loc = getLocation();
 			if (parent != null) {
-				parent.advance(cursor);
+				parent.cursor = getEnd() - parent.start; // The parent now ends where this branch ends
 			}
 			return loc;
 		}
 
+		/**
+		 * Parses a rule at the cursor. While the locator memoizes, the result
+		 * of the rule at this offset, and the offset it ends at, are
+		 * remembered: parsing it there again only replays them.
+		 * 
+		 * @param rule
+		 *            the rule, compared by identity
+		 * @param parser
+		 *            the parser of the rule: it must depend only on the
+		 *            offset, and advance the branch as far as it parsed
+		 * @return the result of the parser
+		 */
+		@SuppressWarnings("unchecked")
+		public <R> R memo(Object rule, Function<CodeBranch, R> parser) {
+			if (memo == null) {
+				return parser.apply(this);
+			}
+			int from = getEnd();
+			Map<Integer, Parsed> results = memo.computeIfAbsent(rule, r -> new HashMap<>());
+			Parsed parsed = results.get(from);
+			if (parsed == null) {
+				R result = parser.apply(this);
+				results.put(from, new Parsed(result, getEnd()));
+				return result;
+			}
+			cursor += parsed.end - from;
+			return (R) parsed.result;
+		}
+
 		@Override
 		public String toString() {
 			return "<<<" + getContent() + ">>>" + getRest();
@@ -93,6 +283,48 @@ public class CodeLocator {
 		return new CodeLocationBuilder(from);
 	}
 
+	/** A span of a text, which is not copied until {@link #toString()}. */
+	@AllArgsConstructor
+	private static final class TextView implements CharSequence {
+
+		private final String text;
+		private final int start;
+		private final int end;
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of " + length());
+			}
+			return text.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if (from < 0 || to > end - start || from > to) {
+				throw new IndexOutOfBoundsException("Span [" + from + ", " + to + "[ out of " + length());
+			}
+			return new TextView(text, start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			return text.substring(start, end);
+		}
+	}
+
+	/** The result of a rule at an offset, and the offset it ends at. */
+	@AllArgsConstructor
+	private static final class Parsed {
+		private final Object result;
+		private final int end;
+	}
+
 	@AllArgsConstructor
 	public class CodeLocationBuilder {
 
@@ -0,0 +1,250 @@
+package tokenizer;
+
+/**
+ * Index of the significant code of a file, built in one pass: whitespace and
+ * comments are left out, string and char litterals are kept as is.<br>
+ * Gives, in O(1), a 64-bit hash of the significant code of any span of the
+ * file. Spans which only differ by whitespace and comments have the same
+ * hash. Also gives, in O(1), where the whitespace and comments following any
+ * position end.
+ */
+public class StructuralIndex {
+
+	private static final int SEPARATOR = Character.MAX_VALUE + 1; // Stands for skipped code between two tokens which would otherwise merge
+	private static final long MOD1 = 2_147_483_647L; // 2^31 - 1
+	private static final long MOD2 = 2_147_483_629L; // Largest prime below 2^31 - 1
+	private static final long BASE1 = 131_071L;
+	private static final long BASE2 = 524_287L;
+
+	/** For each position in the file, the index of the first symbol at or after it. */
+	private final int[] firstSymbol;
+	private final boolean[] separator;
+	private final int[] prefixHash1;
+	private final int[] prefixHash2;
+	private final int[] power1;
+	private final int[] power2;
+	/** For each position in the file, the first position at or after it which is not whitespace or a comment. */
+	private final int[] nextSignificant;
+
+	/**
+	 * Indexes a file.
+	 *
+	 * @param code
+	 *            the file content
+	 */
+	public StructuralIndex(String code) {
+		final int length = code.length();
+		firstSymbol = new int[length + 1];
+		int[] symbols = new int[length];
+		boolean[] separators = new boolean[length];
+		int count = 0;
+		int lastSignificant = -1; // Last significant char emitted
+		boolean skipped = false; // Code skipped since the last significant char
+		int position = 0;
+		while (position < length) {
+			int skipEnd = skip(code, position);
+			if (skipEnd > position) {
+				for (int p = position; p < skipEnd; p++) {
+					firstSymbol[p] = count;
+				}
+				position = skipEnd;
+				skipped = true;
+				continue;
+			}
+			int end = literalEnd(code, position);
+			if (skipped && lastSignificant >= 0 && merges((char) lastSignificant, code.charAt(position))) {
+				firstSymbol[position++] = count; // The separator belongs to the code which follows
+				separators[count] = true;
+				symbols[count++] = SEPARATOR;
+				symbols[count++] = code.charAt(position - 1);
+			}
+			for (int p = position; p < end; p++) {
+				firstSymbol[p] = count;
+				symbols[count++] = code.charAt(p);
+			}
+			lastSignificant = code.charAt(end - 1);
+			skipped = false;
+			position = end;
+		}
+		firstSymbol[length] = count;
+
+		separator = new boolean[count];
+		System.arraycopy(separators, 0, separator, 0, count);
+		prefixHash1 = new int[count + 1];
+		prefixHash2 = new int[count + 1];
+		power1 = new int[count + 1];
+		power2 = new int[count + 1];
+		power1[0] = 1;
+		power2[0] = 1;
+		for (int i = 0; i < count; i++) {
+			prefixHash1[i + 1] = (int) ((prefixHash1[i] * BASE1 + symbols[i] + 1) % MOD1);
+			prefixHash2[i + 1] = (int) ((prefixHash2[i] * BASE2 + symbols[i] + 1) % MOD2);
+			power1[i + 1] = (int) (power1[i] * BASE1 % MOD1);
+			power2[i + 1] = (int) (power2[i] * BASE2 % MOD2);
+		}
+		nextSignificant = nextSignificant(code);
+	}
+
+	/**
+	 * Hashes the significant code of a span of the file.
+	 *
+	 * @param start
+	 *            the start of the span (inclusive)
+	 * @param end
+	 *            the end of the span (exclusive)
+	 * @return a 64-bit hash
+	 */
+	public long hash(int start, int end) {
+		int from = firstSymbol[start];
+		int to = firstSymbol[end];
+		if (from < to && separator[from]) {
+			from++; // What precedes the span is irrelevant
+		}
+		long hash1 = ((prefixHash1[to] - (long) prefixHash1[from] * power1[to - from]) % MOD1 + MOD1) % MOD1;
+		long hash2 = ((prefixHash2[to] - (long) prefixHash2[from] * power2[to - from]) % MOD2 + MOD2) % MOD2;
+		return hash1 << 32 | hash2;
+	}
+
+	/**
+	 * Counts the significant symbols of a span of the file: chars other than
+	 * whitespace and comments. Spans of the same hash but of different lengths
+	 * are known to differ.
+	 *
+	 * @param start
+	 *            the start of the span (inclusive)
+	 * @param end
+	 *            the end of the span (exclusive)
+	 * @return a number of symbols
+	 */
+	public int length(int start, int end) {
+		int from = firstSymbol[start];
+		int to = firstSymbol[end];
+		if (from < to && separator[from]) {
+			from++; // Same as the hash
+		}
+		return to - from;
+	}
+
+	/**
+	 * Finds, for each position, where the whitespace and comments starting
+	 * there end. Unlike the symbols, this does not depend on the literals: any
+	 * position may be skipped from, as the parser does.
+	 */
+	private static int[] nextSignificant(String code) {
+		final int length = code.length();
+		int[] next = new int[length + 1];
+		next[length] = length;
+		int close0 = -1; // First "*" "/" starting at or after p, if any
+		int close1 = -1; // ... at or after p + 1
+		int close2 = -1; // ... at or after p + 2
+		int lineEnd = -1; // First line terminator at or after p, if any
+		for (int p = length - 1; p >= 0; p--) {
+			char c = code.charAt(p);
+			close2 = close1;
+			close1 = close0;
+			close0 = c == '*' && p + 1 < length && code.charAt(p + 1) == '/' ? p : close1;
+			if (isLineTerminator(c)) {
+				lineEnd = p;
+			}
+			int skipEnd = p;
+			if (isWhitespace(c)) {
+				skipEnd = p + 1;
+			} else if (c == '/' && p + 1 < length) {
+				char following = code.charAt(p + 1);
+				if (following == '*' && close2 >= 0) { // Delimited comment, if closed
+					skipEnd = close2 + 2;
+				} else if (following == '/' && lineEnd >= 0 && code.charAt(lineEnd) == '\n') { // Line comment, if ended by a line feed
+					skipEnd = lineEnd + 1;
+				}
+			}
+			next[p] = skipEnd > p ? next[skipEnd] : p;
+		}
+		return next;
+	}
+
+	/**
+	 * Skips the whitespace and comments starting at a position, in O(1).
+	 *
+	 * @param position
+	 *            a position in the file
+	 * @return the first position at or after it which is not whitespace or a
+	 *         comment
+	 */
+	public int nextSignificant(int position) {
+		return nextSignificant[position];
+	}
+
+	/**
+	 * Skips whitespace and comments.
+	 *
+	 * @return the end of the skipped code (position if nothing was skipped)
+	 */
+	private static int skip(String code, int position) {
+		final int length = code.length();
+		char c = code.charAt(position);
+		if (isWhitespace(c)) {
+			int end = position + 1;
+			while (end < length && isWhitespace(code.charAt(end))) {
+				end++;
+			}
+			return end;
+		}
+		if (c == '/' && position + 1 < length) {
+			char next = code.charAt(position + 1);
+			if (next == '*') { // Delimited comment, if closed
+				int close = code.indexOf("*/", position + 2);
+				return close < 0 ? position : close + 2;
+			} else if (next == '/') { // Line comment, if ended by a line feed
+				for (int end = position + 2; end < length; end++) {
+					char e = code.charAt(end);
+					if (isLineTerminator(e)) {
+						return e == '\n' ? end + 1 : position;
+					}
+				}
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Finds the end of the significant code starting at position: a whole
+	 * string or char litteral, otherwise a single char.
+	 */
+	private static int literalEnd(String code, int position) {
+		char quote = code.charAt(position);
+		if (quote != '"' && quote != '\'') {
+			return position + 1;
+		}
+		final int length = code.length();
+		int end = position + 1;
+		while (end < length) {
+			char c = code.charAt(end++);
+			if (c == quote || c == '\n') {
+				break;
+			} else if (c == '\\' && end < length) {
+				end++; // Escaped char
+			}
+		}
+		return end;
+	}
+
+	/** Same as the \s regex class. */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	/** Chars not matched by the . regex class. */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	/** Tells if two chars would form a different token, were they not separated. */
+	private static boolean merges(char previous, char next) {
+		return Character.isJavaIdentifierPart(previous) && Character.isJavaIdentifierPart(next) || isOperator(previous) && isOperator(next);
+	}
+
+	private static boolean isOperator(char c) {
+		return "+-*/%=<>!&|^~?:".indexOf(c) >= 0;
+	}
+
+}
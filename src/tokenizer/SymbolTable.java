@@ -0,0 +1,72 @@
+package tokenizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the identifiers and litterals met while parsing into dense int
+ * ids.<br>
+ * Each distinct symbol is kept once, so the parsed trees share their strings,
+ * and two symbols of the same table are equal if and only if their ids are.
+ * A table is meant to be shared by the files of a same diff (see
+ * {@link CodeLocator#CodeLocator(String, SymbolTable)}).
+ */
+public final class SymbolTable {
+
+	/** Id of a symbol that was not interned. */
+	public static final int NONE = -1;
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> symbols = new ArrayList<>();
+
+	/**
+	 * Interns a symbol.
+	 *
+	 * @param symbol
+	 *            the symbol
+	 * @return its id, the same for every equal symbol
+	 */
+	public synchronized int intern(String symbol) {
+		Integer id = ids.get(symbol);
+		if (id == null) {
+			id = symbols.size();
+			ids.put(symbol, id);
+			symbols.add(symbol);
+		}
+		return id;
+	}
+
+	/**
+	 * The symbol of an id.
+	 *
+	 * @param id
+	 *            an id given by {@link #intern(String)}
+	 * @return the shared instance of the symbol
+	 */
+	public synchronized String get(int id) {
+		return symbols.get(id);
+	}
+
+	/**
+	 * Interns a symbol and returns its shared instance.
+	 *
+	 * @param symbol
+	 *            the symbol
+	 * @return the shared instance of the symbol
+	 */
+	public synchronized String canonical(String symbol) {
+		return get(intern(symbol));
+	}
+
+	/**
+	 * The number of distinct symbols interned.
+	 *
+	 * @return a count
+	 */
+	public synchronized int size() {
+		return symbols.size();
+	}
+
+}
@@ -0,0 +1,177 @@
+package tokenizer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import lexer.Grammar;
+import tokenizer.CodeLocator.CodeLocation;
+import tokenizer.usual.GenericTokenizer.TokenBuilder;
+
+/**
+ * The {@link Token}s of a file, held column-wise: the kind, start and end of each token are kept in int arrays rather
+ * than in one object per token, so a scan over the tokens reads contiguous memory.<br>
+ * The kind of a token is the index of its {@link TokenBuilder}. A {@link Token} object is only built when the token is
+ * read as a list element, then kept. The symbol id of a token in the {@link SymbolTable} of the file is interned on
+ * demand.
+ *
+ * @param <G> a {@link Grammar}
+ */
+public class TokenBuffer<G extends Grammar> extends AbstractList<Token<G>> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final CodeLocator locator;
+    private final List<? extends TokenBuilder<G, ? extends Token<G>>> builders;
+    private int size = 0;
+    private int[] kind = new int[INITIAL_CAPACITY];
+    private int[] start = new int[INITIAL_CAPACITY];
+    private int[] end = new int[INITIAL_CAPACITY];
+    private int[] symbol = newSymbols(INITIAL_CAPACITY);
+    private Token<G>[] tokens = null; // Built on demand
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param locator the locator of the file
+     * @param builders the builders of the tokens, by kind
+     */
+    public TokenBuffer(CodeLocator locator, List<? extends TokenBuilder<G, ? extends Token<G>>> builders) {
+        this.locator = locator;
+        this.builders = builders;
+    }
+
+    /**
+     * Appends a token.
+     *
+     * @param tokenKind the index of the builder of the token
+     * @param tokenStart the offset of the token in the file
+     * @param tokenEnd the offset after the token in the file
+     */
+    public void add(int tokenKind, int tokenStart, int tokenEnd) {
+        if (size == kind.length) {
+            int capacity = size * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            symbol = Arrays.copyOf(symbol, capacity);
+            Arrays.fill(symbol, size, capacity, SymbolTable.NONE);
+            if (tokens != null) {
+                tokens = Arrays.copyOf(tokens, capacity);
+            }
+        }
+        kind[size] = tokenKind;
+        start[size] = tokenStart;
+        end[size] = tokenEnd;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The kind of a token.
+     *
+     * @param index the index of the token
+     * @return the index of its builder
+     */
+    public int getKind(int index) {
+        checkIndex(index);
+        return kind[index];
+    }
+
+    /**
+     * The start of a token.
+     *
+     * @param index the index of the token
+     * @return its offset in the file
+     */
+    public int getStart(int index) {
+        checkIndex(index);
+        return start[index];
+    }
+
+    /**
+     * The end of a token.
+     *
+     * @param index the index of the token
+     * @return the offset after it in the file
+     */
+    public int getEnd(int index) {
+        checkIndex(index);
+        return end[index];
+    }
+
+    /**
+     * The symbol id of a token, interned in the symbol table of the file on the first call.
+     *
+     * @param index the index of the token
+     * @return its id
+     */
+    public int getSymbol(int index) {
+        checkIndex(index);
+        if (symbol[index] == SymbolTable.NONE) {
+            int offset = locator.getOffset();
+            symbol[index] = locator.getSymbolTable().intern(locator.getFileContent().substring(start[index] - offset, end[index] - offset));
+        }
+        return symbol[index];
+    }
+
+    /**
+     * The code of a token, as the shared instance of its symbol.
+     *
+     * @param index the index of the token
+     * @return the code
+     */
+    public String getText(int index) {
+        return locator.getSymbolTable().get(getSymbol(index));
+    }
+
+    /**
+     * The location of a token.
+     *
+     * @param index the index of the token
+     * @return a new location
+     */
+    public CodeLocation getLocation(int index) {
+        checkIndex(index);
+        return locator.from(start[index]).to(end[index]);
+    }
+
+    /**
+     * The {@link Token} object of a token, built on the first call.
+     *
+     * @param index the index of the token
+     * @return the token
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Token<G> get(int index) {
+        checkIndex(index);
+        if (tokens == null) {
+            tokens = (Token<G>[]) new Token<?>[kind.length];
+        }
+        Token<G> token = tokens[index];
+        if (token == null) {
+            token = builders.get(kind[index]).build(getLocation(index));
+            tokens[index] = token;
+        }
+        return token;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+    }
+
+    private static int[] newSymbols(int capacity) {
+        int[] symbols = new int[capacity];
+        Arrays.fill(symbols, SymbolTable.NONE);
+        return symbols;
+    }
+
+}
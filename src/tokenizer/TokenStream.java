@@ -1,14 +1,22 @@
 package tokenizer;
 
-import java.util.LinkedList;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lexer.Grammar;
 import lexer.java.JavaLexer.JavaGrammar;
 import tokenizer.CodeLocator.CodeBranch;
 import tokenizer.java.JavaCodeTokenizer;
+import tokenizer.usual.TokenReader;
 
 /**
  * Represents a Stream of {@link Token}s, in the order with which they were found in a source file.<br>
@@ -40,13 +48,35 @@ public interface TokenStream<G extends Grammar> {
         if (!hasNext()) {
             return Optional.empty();
         }
-        final Token<G> token = fork().next(); // peek the next one
+        final Token<G> token = peek();
         if (requestClass.isInstance(token)) {
             return Optional.of((T) next());
         }
         return Optional.empty();
     }
 
+    /**
+     * Returns the next {@link Token}, without advancing the index.
+     * 
+     * @return the {@link Token}. May be null in case we reached the end of the stream.
+     */
+    default Token<G> peek() {
+        return fork().next();
+    }
+
+    /**
+     * Lexes a rule at the index of this stream. The root stream remembers the result of a rule at an index, and the
+     * index it ends at: lexing it there again, as when a caller backtracks, only replays them.
+     * 
+     * @param <R> the result type
+     * @param rule the rule, compared by identity
+     * @param lexer the lexer of the rule: it must depend only on the index, and commit to this stream what it read
+     * @return the result of the lexer
+     */
+    default <R> R memo(Object rule, Function<TokenStream<G>, R> lexer) {
+        return lexer.apply(this);
+    }
+
     /**
      * Commits the advance of this fork to the parent (if any).
      * 
@@ -69,92 +99,202 @@ public interface TokenStream<G extends Grammar> {
     boolean hasNext();
 
     /**
-     * Initiates a fork-able {@link TokenStream} from a list of {@link Token}s.
+     * Initiates a fork-able {@link TokenStream} from a list of {@link Token}s. A {@link RandomAccess} list is read in
+     * place, and must not change while the stream is in use; any other list is copied.
      * 
      * @param <G> a grammar
      * @param initialStream the list
      * @return the stream
      */
     public static <G extends Grammar> TokenStream<G> of(List<Token<G>> initialStream) {
-        return new TokenStreamRoot<>(new LinkedList<>(initialStream)).firstFork();
+        return new TokenStreamRoot<>(initialStream).firstFork();
+    }
+
+    /**
+     * Initiates a fork-able {@link TokenStream} over a {@link TokenBuffer}. Tokens are built as the stream reaches them.
+     * 
+     * @param <G> a grammar
+     * @param buffer the tokens
+     * @return the stream
+     */
+    public static <G extends Grammar> TokenStream<G> of(TokenBuffer<G> buffer) {
+        return new TokenStreamRoot<>(buffer).firstFork();
+    }
+
+    /**
+     * Initiates a fork-able {@link TokenStream} over a {@link TokenReader}. Tokens are read as the stream reaches them,
+     * and only the tokens from the oldest fork still reachable on are held, so that a very large source need not be
+     * held in memory. A fork keeps its tokens until it is garbage collected: a fork let go is released late, never
+     * early.
+     * 
+     * @param <G> a grammar
+     * @param reader the tokens, closed by the caller
+     * @return the stream
+     */
+    public static <G extends Grammar> TokenStream<G> of(TokenReader<G, ? extends Token<G>> reader) {
+        return new TokenStreamRoot<G>(reader).firstFork();
     }
 
     /**
-     * The Root stream. This is not a {@link Fork}.
+     * The Root stream. This is not a {@link Fork}.<br>
+     * Tokens are held in a random access list, and each fork holds its absolute index in it, like a mark: a fork
+     * starts at the index of its parent, and committing it resets the parent to its own index. All operations are in
+     * constant time, whatever the depth of the forks.<br>
+     * Tokens read lazily are held in a {@link TokenWindow} instead: the root then tracks its forks, so the window can
+     * release the tokens before the oldest of them.<br>
+     * The results of {@link TokenStream#memo} are held here, for as long as the stream, or as their tokens.
      *
      * @param <G> the {@link Grammar}
      */
     class TokenStreamRoot<G extends Grammar> {
 
-        private final List<Token<G>> stream;
+        private final List<Token<G>> stream; // Null if read in a window
+        private final TokenWindow<G> window; // Null if held in a list
+        private final List<WeakReference<Fork>> forks = new ArrayList<>(); // Forks over the window
+        private int pruneForksAt = 64;
         private final Fork firstFork;
+        private final Map<Object, Map<Integer, Lexed>> memo = new IdentityHashMap<>();
 
         public TokenStreamRoot(List<Token<G>> initialStream) {
-            this.stream = initialStream;
-            this.firstFork = new Fork(null);
+            this.stream = initialStream instanceof RandomAccess ? initialStream : new ArrayList<>(initialStream);
+            this.window = null;
+            this.firstFork = new Fork(null, 0);
+        }
+
+        public TokenStreamRoot(Iterator<? extends Token<G>> tokens) {
+            this.stream = null;
+            this.window = new TokenWindow<>(tokens, this::release);
+            this.firstFork = new Fork(null, 0);
         }
 
         private Fork firstFork() {
             return firstFork;
         }
 
+        private boolean has(int index) {
+            return window == null ? index < stream.size() : window.has(index);
+        }
+
+        private Token<G> get(int index) {
+            return window == null ? stream.get(index) : window.get(index);
+        }
+
+        /** Tracks a fork over the window, forgetting the forks collected. */
+        private void track(Fork fork) {
+            if (forks.size() >= pruneForksAt) {
+                forks.removeIf(reference -> reference.get() == null);
+                pruneForksAt = Math.max(64, 2 * forks.size());
+            }
+            forks.add(new WeakReference<>(fork));
+        }
+
+        /**
+         * Finds the oldest index a fork may still read, and forgets the results of {@link TokenStream#memo} before it:
+         * a fork never goes back.
+         */
+        private int release() {
+            int oldest = firstFork.index;
+            for (WeakReference<Fork> reference : forks) {
+                Fork fork = reference.get();
+                if (fork != null) {
+                    oldest = Math.min(oldest, fork.index);
+                }
+            }
+            int released = oldest;
+            for (Map<Integer, Lexed> results : memo.values()) {
+                results.keySet().removeIf(from -> from < released);
+            }
+            return oldest;
+        }
+
         @Override
         public String toString() {
+            if (window != null) {
+                return window.toString(window.getOffset());
+            }
             return String.join("", stream.stream().map(token -> token.toString()).collect(Collectors.toList()));
         }
 
         private class Fork implements TokenStream<G> {
 
             private final Fork parent; // if null, this is root
-            private int forkIndex = 0;
+            private int index; // Absolute index of the next token
 
-            public Fork(Fork parent) {
+            public Fork(Fork parent, int index) {
                 this.parent = parent;
+                this.index = index;
+                if (window != null && parent != null) {
+                    track(this);
+                }
             }
 
-            private void fastForward(int delta) {
-                forkIndex += delta;
+            @Override
+            public Token<G> next() {
+                if (!hasNext()) {
+                    return null;
+                }
+                return get(index++);
             }
 
-            protected int getTotalIndex() {
-                return forkIndex + (parent == null ? 0 : parent.getTotalIndex());
+            @Override
+            public Token<G> peek() {
+                return hasNext() ? get(index) : null;
             }
 
             @Override
-            public Token<G> next() {
-                if (!hasNext()) {
-                    return null;
+            @SuppressWarnings("unchecked")
+            public <R> R memo(Object rule, Function<TokenStream<G>, R> lexer) {
+                int from = index;
+                Map<Integer, Lexed> results = memo.computeIfAbsent(rule, r -> new HashMap<>());
+                Lexed lexed = results.get(from);
+                if (lexed == null) {
+                    R result = lexer.apply(this);
+                    results.put(from, new Lexed(result, index));
+                    return result;
                 }
-                final Token<G> token = stream.get(getTotalIndex());
-                forkIndex++;
-                return token;
+                index = lexed.end;
+                return (R) lexed.result;
             }
 
             @Override
             public Fork commit() {
-                parent.fastForward(forkIndex);
+                parent.index = index;
                 return parent;
             }
 
             @Override
             public TokenStream<G> fork() {
-                return new Fork(this);
+                return new Fork(this, index);
             }
 
             @Override
             public boolean hasNext() {
-                return getTotalIndex() < stream.size();
+                return has(index);
             }
 
             @Override
             public String toString() {
+                if (window != null) {
+                    return window.toString(index); // Only the tokens read
+                }
                 StringBuilder builder = new StringBuilder();
-                for (int i = getTotalIndex(); i < stream.size(); i++) {
+                for (int i = index; i < stream.size(); i++) {
                     builder.append(stream.get(i));
                 }
                 return builder.toString();
             }
         }
+
+        /** A result of a rule, and the index after it. */
+        private static final class Lexed {
+            private final Object result;
+            private final int end;
+
+            Lexed(Object result, int end) {
+                this.result = result;
+                this.end = end;
+            }
+        }
     }
 
     /**
@@ -164,8 +304,7 @@ public interface TokenStream<G extends Grammar> {
      */
     public static void main(String[] argc) {
         CodeBranch code = new CodeLocator("package java.com.truc;").branch();
-        Optional<List<Token<JavaGrammar>>> tokens = JavaCodeTokenizer.TOKENIZER.tokenizeAll(code);
-        TokenStream<JavaGrammar> stream = TokenStream.of(tokens.get());
+        TokenStream<JavaGrammar> stream = TokenStream.of(JavaCodeTokenizer.TOKENIZER.buffer(code));
 
         // Use once, commit
         stream = stream.fork();
@@ -0,0 +1,106 @@
+package tokenizer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.IntSupplier;
+
+import lexer.Grammar;
+
+/**
+ * The {@link Token}s of a source read lazily, held in a sliding window: tokens are read as they are reached, and the
+ * tokens before the oldest index still in use are released when the window is full.
+ *
+ * @param <G> a {@link Grammar}
+ */
+final class TokenWindow<G extends Grammar> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Iterator<? extends Token<G>> source;
+    private final IntSupplier oldestInUse;
+    private Token<G>[] tokens;
+    private int offset = 0; // Index of tokens[0] in the source
+    private int count = 0; // Tokens held
+
+    /**
+     * Creates a window.
+     *
+     * @param source the tokens
+     * @param oldestInUse the index of the oldest token which may still be read, asked when the window is full
+     */
+    @SuppressWarnings("unchecked")
+    TokenWindow(Iterator<? extends Token<G>> source, IntSupplier oldestInUse) {
+        this.source = source;
+        this.oldestInUse = oldestInUse;
+        this.tokens = (Token<G>[]) new Token<?>[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Tells if the source has a token at an index, reading it if needed.
+     *
+     * @param index an index in the source, not released
+     * @return true if there is such a token
+     */
+    boolean has(int index) {
+        while (index >= offset + count && source.hasNext()) {
+            append(source.next());
+        }
+        return index < offset + count;
+    }
+
+    /**
+     * The token at an index, reading it if needed.
+     *
+     * @param index an index in the source, not released
+     * @return the token
+     */
+    Token<G> get(int index) {
+        if (index < offset) {
+            throw new IllegalStateException("Token " + index + " is released, the window starts at " + offset);
+        }
+        if (!has(index)) {
+            throw new IndexOutOfBoundsException("No token " + index);
+        }
+        return tokens[index - offset];
+    }
+
+    /**
+     * The index of the first token held.
+     *
+     * @return an index in the source
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Describes the tokens already read, from an index.
+     *
+     * @param from an index in the source, not released
+     * @return the tokens
+     */
+    String toString(int from) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = Math.max(from, offset); i < offset + count; i++) {
+            builder.append(tokens[i - offset]);
+        }
+        return builder.toString();
+    }
+
+    /** Appends a token, releasing the tokens no longer in use if the window is full, else growing it. */
+    private void append(Token<G> token) {
+        if (count == tokens.length) {
+            int released = Math.min(oldestInUse.getAsInt(), offset + count) - offset;
+            if (released >= count / 2) {
+                System.arraycopy(tokens, released, tokens, 0, count - released);
+                Arrays.fill(tokens, count - released, count, null);
+                offset += released;
+                count -= released;
+            } else {
+                tokens = Arrays.copyOf(tokens, 2 * count);
+            }
+        }
+        tokens[count++] = token;
+    }
+
+}
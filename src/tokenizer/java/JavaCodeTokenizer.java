@@ -1,5 +1,6 @@
 package tokenizer.java;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -7,6 +8,7 @@ import java.util.Optional;
 import lexer.java.JavaLexer.JavaGrammar;
 import tokenizer.CodeLocator;
 import tokenizer.CodeLocator.CodeBranch;
+import tokenizer.SymbolTable;
 import tokenizer.Token;
 import tokenizer.Tokenizer;
 import tokenizer.tokens.LineFeed;
@@ -14,14 +16,16 @@ import tokenizer.tokens.Number;
 import tokenizer.tokens.Symbol;
 import tokenizer.tokens.Whitespace;
 import tokenizer.tokens.Word;
-import tokenizer.usual.AggregateTokenizer;
+import tokenizer.usual.AutomatonTokenizer;
+import tokenizer.usual.GenericTokenizer;
+import tokenizer.usual.TokenReader;
 
 /**
  * Tokenizer of Java code.
  */
 public class JavaCodeTokenizer implements Tokenizer<JavaGrammar, Token<JavaGrammar>> {
 
-    private static final List<Tokenizer<JavaGrammar, ? extends Token<JavaGrammar>>> tokenizers = new ArrayList<>();
+    private static final List<GenericTokenizer<JavaGrammar, ? extends Token<JavaGrammar>>> tokenizers = new ArrayList<>();
 
     static {
         // Whitespace
@@ -98,8 +102,19 @@ public class JavaCodeTokenizer implements Tokenizer<JavaGrammar, Token<JavaGramm
         tokenizers.add(Word.tokenizer());
     }
 
-    public static final AggregateTokenizer<JavaGrammar, Token<JavaGrammar>> TOKENIZER =
-            new AggregateTokenizer<JavaGrammar, Token<JavaGrammar>>(tokenizers);
+    public static final AutomatonTokenizer<JavaGrammar, Token<JavaGrammar>> TOKENIZER =
+            new AutomatonTokenizer<JavaGrammar, Token<JavaGrammar>>(tokenizers);
+
+    /**
+     * Reads the tokens of a Java source lazily, chunk by chunk.
+     * 
+     * @param source the source
+     * @param symbolTable the symbol table interning the symbols of the source
+     * @return the token reader, to close
+     */
+    public static TokenReader<JavaGrammar, Token<JavaGrammar>> read(Reader source, SymbolTable symbolTable) {
+        return new TokenReader<>(TOKENIZER, source, TokenReader.DEFAULT_CHUNK_SIZE, symbolTable);
+    }
 
     /**
      * Test.
@@ -36,11 +36,13 @@ public interface Word<G extends Grammar> extends Token<G>, SingleTokenStructure<
     public static class WordImpl<G extends Grammar> implements Word<G> {
 
         final String word;
+        final int symbol; // Id in the symbol table of the location
         final CodeLocation location;
 
         public WordImpl(CodeLocation location) {
             this.location = location;
-            this.word = location.getCode();
+            this.symbol = location.getSymbolTable().intern(location.getCode());
+            this.word = location.getSymbolTable().get(symbol);
         }
 
         @Override
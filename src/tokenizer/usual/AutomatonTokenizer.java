@@ -0,0 +1,412 @@
+package tokenizer.usual;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lexer.Grammar;
+import tokenizer.CodeLocator;
+import tokenizer.CodeLocator.CodeBranch;
+import tokenizer.CodeLocator.CodeLocation;
+import tokenizer.Token;
+import tokenizer.TokenBuffer;
+import tokenizer.Tokenizer;
+import tokenizer.usual.GenericTokenizer.TokenBuilder;
+
+/**
+ * Creates a {@link Tokenizer} that compiles the patterns of many {@link GenericTokenizer}s into a single deterministic
+ * automaton, so that each token is recognized in one pass over its characters, without copying the input.<br>
+ * Tokens are the same as with an {@link AggregateTokenizer} of the same tokenizers: the first pattern that matches wins,
+ * with its longest match. Keywords are simply patterns registered before the word pattern.<br>
+ * Patterns are limited to the subset the tokenizers use: a group holding a sequence of chars, escapes (\w, \d, \s...),
+ * '.' or [classes], each optionally followed by '+', '*' or '?'; then optionally, outside of the group, a single char
+ * class the next char must belong to (as in "(class)\W").
+ *
+ * @param <G> a common {@link Grammar}
+ * @param <T> a common sub-type of {@link Token}
+ */
+public class AutomatonTokenizer<G extends Grammar, T extends Token<G>> implements Tokenizer<G, T> {
+
+    private static final int CHARS = Character.MAX_VALUE + 1;
+    private static final int DEAD = -1;
+    private static final int NO_RULE = Integer.MAX_VALUE;
+    /** No pattern matches. */
+    static final long NO_MATCH = -1L;
+    /** The scan needs more input to decide. */
+    static final long MORE_INPUT = -2L;
+
+    private final List<TokenBuilder<G, ? extends T>> builders = new ArrayList<>();
+    /** The tail each rule requires after the token, or null. */
+    private final List<BitSet> tails = new ArrayList<>();
+    /** Class of each char: chars of a same class belong to the same char sets. */
+    private final char[] charClass = new char[CHARS];
+    private final int classCount;
+    /** Next state, per state then per char class. */
+    private final int[] transitions;
+    /** Rules accepting in each state, in registration order. */
+    private final int[][] accepting;
+
+    /**
+     * Compiles the patterns of some tokenizers. Their order matters, as with an {@link AggregateTokenizer}.
+     *
+     * @param tokenizers the tokenizers
+     * @throws IllegalArgumentException if a pattern is not supported
+     */
+    public AutomatonTokenizer(List<? extends GenericTokenizer<G, ? extends T>> tokenizers) {
+        List<Item[]> rules = new ArrayList<>();
+        for (GenericTokenizer<G, ? extends T> tokenizer : tokenizers) {
+            rules.add(parse(tokenizer.getPatternString()));
+            builders.add(tokenizer.getBuilder());
+        }
+        this.classCount = partition(rules);
+
+        // States of the non-deterministic automaton: rule r having matched i items is state offset[r] + i
+        int[] offset = new int[rules.size() + 1];
+        for (int r = 0; r < rules.size(); r++) {
+            offset[r + 1] = offset[r] + rules.get(r).length + 1;
+        }
+        char[] representative = new char[classCount];
+        for (int c = CHARS - 1; c >= 0; c--) {
+            representative[charClass[c]] = (char) c;
+        }
+
+        // Subset construction
+        List<BitSet> states = new ArrayList<>();
+        Map<BitSet, Integer> ids = new HashMap<>();
+        List<int[]> rows = new ArrayList<>();
+        BitSet start = new BitSet();
+        for (int r = 0; r < rules.size(); r++) {
+            start.set(offset[r]);
+        }
+        closure(start, rules, offset);
+        states.add(start);
+        ids.put(start, 0);
+        for (int s = 0; s < states.size(); s++) {
+            BitSet state = states.get(s);
+            int[] row = new int[classCount];
+            for (int cl = 0; cl < classCount; cl++) {
+                BitSet next = move(state, representative[cl], rules, offset);
+                if (next.isEmpty()) {
+                    row[cl] = DEAD;
+                } else {
+                    Integer id = ids.get(next);
+                    if (id == null) {
+                        id = states.size();
+                        states.add(next);
+                        ids.put(next, id);
+                    }
+                    row[cl] = id;
+                }
+            }
+            rows.add(row);
+        }
+        transitions = new int[states.size() * classCount];
+        accepting = new int[states.size()][];
+        for (int s = 0; s < states.size(); s++) {
+            System.arraycopy(rows.get(s), 0, transitions, s * classCount, classCount);
+            List<Integer> rulesAccepting = new ArrayList<>();
+            for (int r = 0; r < rules.size(); r++) {
+                if (states.get(s).get(offset[r + 1] - 1)) {
+                    rulesAccepting.add(r);
+                }
+            }
+            accepting[s] = rulesAccepting.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @Override
+    public Optional<T> tokenize(CodeBranch code) {
+        final CodeLocator locator = code.getLocator();
+        final int start = code.getEnd() - locator.getOffset();
+        long match = scan(locator.getFileContent(), start, true);
+        if (match == NO_MATCH) {
+            return Optional.empty();
+        }
+        CodeBranch fork = code.fork();
+        fork.advance(end(match) - start);
+        CodeLocation location = fork.commit();
+        return Optional.of(build(rule(match), location));
+    }
+
+    /**
+     * Finds as many tokens as possible, as {@link #tokenizeAll(CodeBranch)} does, but into a {@link TokenBuffer}: no
+     * object is created per token until it is read.
+     *
+     * @param code the code, advanced after the tokens found
+     * @return the tokens
+     */
+    public TokenBuffer<G> buffer(CodeBranch code) {
+        final CodeLocator locator = code.getLocator();
+        final String text = locator.getFileContent();
+        final int offset = locator.getOffset();
+        final int start = code.getEnd() - offset;
+        TokenBuffer<G> buffer = new TokenBuffer<>(locator, builders);
+        int position = start;
+        long match;
+        while ((match = scan(text, position, true)) != NO_MATCH && end(match) > position) {
+            buffer.add(rule(match), position + offset, end(match) + offset);
+            position = end(match);
+        }
+        code.advance(position - start);
+        return buffer;
+    }
+
+    /**
+     * Finds the token starting at some position of a text.
+     *
+     * @param text the text
+     * @param from the position
+     * @param endOfInput true if the input ends with the text. Otherwise, a token may go on after it
+     * @return the match (see {@link #rule(long)} and {@link #end(long)}), {@link #NO_MATCH}, or {@link #MORE_INPUT} if
+     *         the token may go on after the text
+     */
+    long scan(CharSequence text, int from, boolean endOfInput) {
+        int best = NO_RULE;
+        int bestEnd = from;
+        int state = 0;
+        int position = from;
+        while (true) {
+            for (int rule : accepting[state]) {
+                if (rule > best) {
+                    break; // Only a rule registered earlier can take over
+                }
+                BitSet tail = tails.get(rule);
+                if (tail == null || position < text.length() && tail.get(text.charAt(position))) {
+                    best = rule;
+                    bestEnd = position;
+                }
+            }
+            if (position == text.length()) {
+                if (!endOfInput) {
+                    return MORE_INPUT;
+                }
+                break;
+            }
+            state = transitions[state * classCount + charClass[text.charAt(position)]];
+            if (state == DEAD) {
+                break;
+            }
+            position++;
+        }
+        return best == NO_RULE ? NO_MATCH : (long) best << 32 | bestEnd;
+    }
+
+    static int rule(long match) {
+        return (int) (match >>> 32);
+    }
+
+    static int end(long match) {
+        return (int) match;
+    }
+
+    T build(int rule, CodeLocation location) {
+        return builders.get(rule).build(location);
+    }
+
+    /** Adds the states reached without consuming any char. */
+    private static void closure(BitSet states, List<Item[]> rules, int[] offset) {
+        for (int r = 0; r < rules.size(); r++) {
+            Item[] items = rules.get(r);
+            for (int i = 0; i < items.length; i++) {
+                if (states.get(offset[r] + i) && items[i].quantifier != Item.ONE) {
+                    states.set(offset[r] + i + 1);
+                }
+            }
+        }
+    }
+
+    /** The states reached by consuming a char. */
+    private static BitSet move(BitSet states, char c, List<Item[]> rules, int[] offset) {
+        BitSet next = new BitSet();
+        for (int r = 0; r < rules.size(); r++) {
+            Item[] items = rules.get(r);
+            for (int i = 0; i < items.length; i++) {
+                if (states.get(offset[r] + i) && items[i].chars.get(c)) {
+                    next.set(offset[r] + (items[i].quantifier == Item.STAR ? i : i + 1));
+                }
+            }
+        }
+        closure(next, rules, offset);
+        return next;
+    }
+
+    /** Splits the chars into classes, so that the automaton has one transition per class rather than per char. */
+    private int partition(List<Item[]> rules) {
+        int count = 1; // All chars start in the same class, which each char set splits
+        for (Item[] items : rules) {
+            for (Item item : items) {
+                int[] split = new int[2 * count]; // New class of each (class, in set), plus one
+                int newCount = 0;
+                for (int c = 0; c < CHARS; c++) {
+                    int key = 2 * charClass[c] + (item.chars.get(c) ? 1 : 0);
+                    if (split[key] == 0) {
+                        split[key] = ++newCount;
+                    }
+                    charClass[c] = (char) (split[key] - 1);
+                }
+                count = newCount;
+            }
+        }
+        return count;
+    }
+
+    /** A set of chars, matched once, any number of times, or optionally. */
+    private static class Item {
+        static final char ONE = '1';
+        static final char STAR = '*';
+        static final char OPTIONAL = '?';
+
+        final BitSet chars;
+        final char quantifier;
+
+        Item(BitSet chars, char quantifier) {
+            this.chars = chars;
+            this.quantifier = quantifier;
+        }
+    }
+
+    /** Parses a pattern into a sequence of items, and registers its tail. */
+    private Item[] parse(String pattern) {
+        List<Item> items = new ArrayList<>();
+        boolean grouped = pattern.startsWith("(");
+        int[] index = { grouped ? 1 : 0 };
+        while (index[0] < pattern.length() && !(grouped && pattern.charAt(index[0]) == ')')) {
+            BitSet chars = atom(pattern, index);
+            char quantifier = index[0] < pattern.length() ? pattern.charAt(index[0]) : Item.ONE;
+            if (quantifier == '+') {
+                items.add(new Item(chars, Item.ONE));
+                items.add(new Item(chars, Item.STAR));
+                index[0]++;
+            } else if (quantifier == Item.STAR || quantifier == Item.OPTIONAL) {
+                items.add(new Item(chars, quantifier));
+                index[0]++;
+            } else {
+                items.add(new Item(chars, Item.ONE));
+            }
+        }
+        BitSet tail = null;
+        if (grouped) {
+            if (index[0] == pattern.length()) {
+                throw new IllegalArgumentException("Unclosed group in pattern: " + pattern);
+            }
+            index[0]++;
+            if (index[0] < pattern.length()) {
+                tail = atom(pattern, index);
+            }
+            if (index[0] < pattern.length()) {
+                throw new IllegalArgumentException("Unsupported tail in pattern: " + pattern);
+            }
+        }
+        tails.add(tail);
+        return items.toArray(new Item[items.size()]);
+    }
+
+    /** Parses one char, escape, '.' or [class] at index, and moves the index past it. */
+    private static BitSet atom(String pattern, int[] index) {
+        char c = pattern.charAt(index[0]++);
+        switch (c) {
+            case '\\':
+                return escape(pattern, index);
+            case '.':
+                BitSet any = new BitSet(CHARS);
+                any.set(0, CHARS);
+                for (char terminator : new char[] { '\n', '\r', '\u0085', '\u2028', '\u2029' }) {
+                    any.clear(terminator);
+                }
+                return any;
+            case '[':
+                return charClass(pattern, index);
+            case '(':
+            case ')':
+            case '|':
+            case '{':
+            case '^':
+            case '$':
+            case '+':
+            case '*':
+            case '?':
+                throw new IllegalArgumentException("Unsupported construct '" + c + "' in pattern: " + pattern);
+            default:
+                return single(c);
+        }
+    }
+
+    private static BitSet charClass(String pattern, int[] index) {
+        BitSet chars = new BitSet(CHARS);
+        boolean negated = index[0] < pattern.length() && pattern.charAt(index[0]) == '^';
+        if (negated) {
+            index[0]++;
+        }
+        while (true) {
+            if (index[0] >= pattern.length()) {
+                throw new IllegalArgumentException("Unclosed class in pattern: " + pattern);
+            }
+            char c = pattern.charAt(index[0]++);
+            if (c == ']') {
+                break;
+            } else if (c == '\\') {
+                chars.or(escape(pattern, index));
+            } else if (index[0] + 1 < pattern.length() && pattern.charAt(index[0]) == '-' && pattern.charAt(index[0] + 1) != ']') {
+                chars.set(c, pattern.charAt(index[0] + 1) + 1);
+                index[0] += 2;
+            } else {
+                chars.set(c);
+            }
+        }
+        if (negated) {
+            chars.flip(0, CHARS);
+        }
+        return chars;
+    }
+
+    private static BitSet escape(String pattern, int[] index) {
+        char c = pattern.charAt(index[0]++);
+        BitSet chars = new BitSet(CHARS);
+        switch (c) {
+            case 'w':
+            case 'W':
+                chars.set('a', 'z' + 1);
+                chars.set('A', 'Z' + 1);
+                chars.set('0', '9' + 1);
+                chars.set('_');
+                break;
+            case 'd':
+            case 'D':
+                chars.set('0', '9' + 1);
+                break;
+            case 's':
+            case 'S':
+                for (char space : new char[] { ' ', '\t', '\n', '\u000B', '\f', '\r' }) {
+                    chars.set(space);
+                }
+                break;
+            case 'n':
+                return single('\n');
+            case 't':
+                return single('\t');
+            case 'r':
+                return single('\r');
+            case 'f':
+                return single('\f');
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw new IllegalArgumentException("Unsupported escape '\\" + c + "' in pattern: " + pattern);
+                }
+                return single(c);
+        }
+        if (Character.isUpperCase(c)) {
+            chars.flip(0, CHARS);
+        }
+        return chars;
+    }
+
+    private static BitSet single(char c) {
+        BitSet chars = new BitSet(CHARS);
+        chars.set(c);
+        return chars;
+    }
+
+}
@@ -35,7 +35,7 @@ public class GenericTokenizer<G extends Grammar, T extends Token<G>> implements
     @Override
     public Optional<T> tokenize(CodeBranch code) {
         CodeBranch fork = code.fork();
-        Matcher matcher = pattern.matcher(fork.getRest());
+        Matcher matcher = pattern.matcher(fork.getRestView());
         if (matcher.lookingAt()) {
             // Commit
             fork.advance(matcher.end(1));
@@ -46,6 +46,14 @@ public class GenericTokenizer<G extends Grammar, T extends Token<G>> implements
         }
     }
 
+    String getPatternString() {
+        return pattern.pattern();
+    }
+
+    TokenBuilder<G, ? extends T> getBuilder() {
+        return builder;
+    }
+
     /**
      * Interface for {@link Token} builders.
      *
@@ -0,0 +1,205 @@
+package tokenizer.usual;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lexer.Grammar;
+import tokenizer.CodeLocator;
+import tokenizer.CodeLocator.CodeLocation;
+import tokenizer.SymbolTable;
+import tokenizer.Token;
+
+/**
+ * Reads the tokens of a source lazily, chunk by chunk, so that a very large source need not be held in memory.<br>
+ * Tokens are the same as {@link AutomatonTokenizer#tokenizeAll} would find on the whole source, and stop at the first
+ * char no pattern recognizes. Their locations are offsets in the whole source, in a {@link CodeLocator} holding only
+ * the window of the source the token was read from. The look-ahead is bounded by the chunk size, except for a token
+ * longer than a chunk, for which the buffer grows.
+ *
+ * @param <G> a common {@link Grammar}
+ * @param <T> a common sub-type of {@link Token}
+ */
+public class TokenReader<G extends Grammar, T extends Token<G>> implements Iterator<T>, Closeable {
+
+    /** Default number of chars read at once. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final AutomatonTokenizer<G, T> tokenizer;
+    private final Reader reader;
+    private final SymbolTable symbolTable;
+    private final int chunkSize;
+    private char[] buffer;
+    private int length = 0; // Chars held in the buffer
+    private int position = 0; // Start of the next token in the buffer
+    private int bufferOffset = 0; // Offset of the buffer in the source
+    private boolean endOfInput = false;
+    private CodeLocator window = null; // The chars held from windowStart, or null after a read
+    private int windowStart = 0;
+    private T next = null;
+    private boolean finished = false;
+
+    /**
+     * Reads tokens from a {@link Reader}.
+     *
+     * @param tokenizer the tokenizer
+     * @param reader the source
+     * @param chunkSize the number of chars read at once
+     * @param symbolTable the symbol table interning the symbols of the source
+     */
+    public TokenReader(AutomatonTokenizer<G, T> tokenizer, Reader reader, int chunkSize, SymbolTable symbolTable) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.tokenizer = tokenizer;
+        this.reader = reader;
+        this.chunkSize = chunkSize;
+        this.symbolTable = symbolTable;
+        this.buffer = new char[2 * chunkSize]; // Room for a chunk, after the start of a token
+    }
+
+    /**
+     * Reads tokens from the remaining bytes of a {@link ByteBuffer}, without copying them.
+     *
+     * @param tokenizer the tokenizer
+     * @param bytes the source
+     * @param charset the encoding of the source
+     * @param chunkSize the number of chars read at once
+     * @param symbolTable the symbol table interning the symbols of the source
+     * @param <G> a common {@link Grammar}
+     * @param <T> a common sub-type of {@link Token}
+     * @return the token reader
+     */
+    public static <G extends Grammar, T extends Token<G>> TokenReader<G, T> of(AutomatonTokenizer<G, T> tokenizer,
+            ByteBuffer bytes, Charset charset, int chunkSize, SymbolTable symbolTable) {
+        Reader reader = new InputStreamReader(new ByteBufferInputStream(bytes.slice()), charset);
+        return new TokenReader<>(tokenizer, reader, chunkSize, symbolTable);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = fetch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T token = next;
+        next = null;
+        return token;
+    }
+
+    /**
+     * The remaining tokens, as a sequential stream. Closing the stream closes the source.
+     *
+     * @return a stream
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+
+    /** Finds the next token, reading more chars while the tokenizer needs them. */
+    private T fetch() throws IOException {
+        while (true) {
+            if (window == null) {
+                windowStart = position;
+                window = new CodeLocator(new String(buffer, position, length - position), bufferOffset + position, symbolTable);
+            }
+            int from = position - windowStart;
+            long match = tokenizer.scan(window.getFileContent(), from, endOfInput);
+            if (match == AutomatonTokenizer.MORE_INPUT) {
+                read();
+                continue;
+            }
+            int end = AutomatonTokenizer.end(match);
+            if (match == AutomatonTokenizer.NO_MATCH || end == from) {
+                return null;
+            }
+            CodeLocation location = window.from(window.getOffset() + from).length(end - from);
+            position += end - from;
+            return tokenizer.build(AutomatonTokenizer.rule(match), location);
+        }
+    }
+
+    /** Drops the chars already tokenized, then reads a chunk. */
+    private void read() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, length - position);
+            length -= position;
+            bufferOffset += position;
+            position = 0;
+        }
+        if (buffer.length - length < chunkSize) { // A token longer than a chunk
+            buffer = Arrays.copyOf(buffer, length + chunkSize);
+        }
+        int count = reader.read(buffer, length, chunkSize);
+        if (count < 0) {
+            endOfInput = true;
+        } else {
+            length += count;
+        }
+        window = null;
+    }
+
+    /** Reads the bytes of a buffer. */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer bytes;
+
+        ByteBufferInputStream(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            return bytes.hasRemaining() ? bytes.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int count) {
+            if (count == 0) {
+                return 0;
+            } else if (!bytes.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(count, bytes.remaining());
+            bytes.get(target, offset, read);
+            return read;
+        }
+    }
+
+}
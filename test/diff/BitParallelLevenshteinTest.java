@@ -0,0 +1,42 @@
+package diff;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit test. */
+public class BitParallelLevenshteinTest {
+
+	/** JUnit test. */
+	@Test
+	public void testSimple() {
+		Assert.assertEquals(0, BitParallelLevenshtein.distance("", ""));
+		Assert.assertEquals(3, BitParallelLevenshtein.distance("abc", ""));
+		Assert.assertEquals(0, BitParallelLevenshtein.distance("Hello", "Hello"));
+		Assert.assertEquals(3, BitParallelLevenshtein.distance("kitten", "sitting"));
+		Assert.assertEquals(3, BitParallelLevenshtein.distance("Hello", "hullo!"));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testAgainstLevenshtein() {
+		Random random = new Random(42);
+		char[] alphabet = { 'a', 'b', 'c', '\u0394' }; // Also a char without a precomputed match vector
+		for (int round = 0; round < 2000; round++) {
+			int maxLength = round % 10 == 0 ? 300 : 70; // Single word and blocked patterns
+			String a = randomString(random, alphabet, maxLength);
+			String b = randomString(random, alphabet, maxLength);
+			Assert.assertEquals(a + " / " + b, Levenshtein.distance(a, b), BitParallelLevenshtein.distance(a, b));
+		}
+	}
+
+	private static String randomString(Random random, char[] alphabet, int maxLength) {
+		int length = random.nextInt(maxLength);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(alphabet[random.nextInt(alphabet.length)]);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,72 @@
+package diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import diff.similarity.evaluator.SimilarityEvaluator;
+import diff.similarity.evaluator.WordSimilarityEvaluator;
+
+/** JUnit test. */
+public class EffortBudgetTest {
+
+	/** JUnit test. */
+	@Test
+	public void testTinyBudgetReturnsApproximate() {
+		List<ShowableString> left = WordSimilarityEvaluator.words(text("word", 300, 0));
+		List<ShowableString> right = WordSimilarityEvaluator.words(text("ward", 300, 1));
+
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		Similarity matching = evaluator.maximumMatch(left, right, EffortBudget.ofEvaluations(10));
+		Assert.assertTrue(matching.isApproximate());
+		Assert.assertEquals(10, evaluator.getEvaluations());
+
+		evaluator = new WordSimilarityEvaluator();
+		Similarity alignment = evaluator.compareWithGaps(left, right, EffortBudget.ofEvaluations(10));
+		Assert.assertTrue(alignment.isApproximate());
+		Assert.assertEquals(10, evaluator.getEvaluations());
+
+		evaluator = new WordSimilarityEvaluator();
+		Assert.assertTrue(evaluator.maximumMatch(left, right, EffortBudget.ofMillis(0)).isApproximate());
+		Assert.assertEquals(0, evaluator.getEvaluations());
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testNestedEvaluationsAreCounted() {
+		WordSimilarityEvaluator words = new WordSimilarityEvaluator();
+		SimilarityEvaluator<ShowableString> sentences = new SimilarityEvaluator<ShowableString>(WordSimilarityEvaluator.WORD_SIZER, "sentence") {
+
+			@Override
+			protected Similarity evaluate(ShowableString sentence1, ShowableString sentence2) {
+				return words.compareWithGaps(WordSimilarityEvaluator.words(sentence1.getContent()), WordSimilarityEvaluator.words(sentence2.getContent()));
+			}
+		};
+		List<ShowableString> left = new ArrayList<>();
+		List<ShowableString> right = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			left.add(new ShowableString(text("word", 20, i), null));
+			right.add(new ShowableString(text("ward", 20, i + 1), null));
+		}
+		EffortBudget budget = EffortBudget.ofEvaluations(50);
+		Similarity matching = sentences.maximumMatch(left, right, budget);
+		Assert.assertTrue(matching.isApproximate());
+		Assert.assertEquals(50, budget.getEvaluations()); // Sentences and words
+		Assert.assertTrue(words.getEvaluations() < 50);
+
+		Assert.assertFalse(sentences.maximumMatch(left.subList(0, 2), right.subList(0, 2)).isApproximate()); // No budget
+	}
+
+	/** Words numbered from an offset. */
+	private static String text(String stem, int length, int offset) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append(i == 0 ? "" : " ").append(stem).append((i + offset) % length);
+		}
+		return text.toString();
+	}
+}
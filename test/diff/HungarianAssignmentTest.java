@@ -0,0 +1,93 @@
+package diff;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit test. */
+public class HungarianAssignmentTest {
+
+	/** JUnit test. */
+	@Test
+	public void testSquare() {
+		double[][] scores = { { 1, 0, 0 }, { 0, 0, 1 }, { 0, 1, 0 } };
+		Assert.assertArrayEquals(new int[] { 0, 2, 1 }, HungarianAssignment.maximize(scores));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testRectangular() {
+		// More columns than rows: every row is assigned
+		double[][] wide = { { 0.1, 0.9, 0.2 }, { 0.8, 0.7, 0.1 } };
+		Assert.assertArrayEquals(new int[] { 1, 0 }, HungarianAssignment.maximize(wide));
+
+		// More rows than columns: one row is left out
+		double[][] tall = { { 0.1, 0.9 }, { 0.8, 0.7 }, { 0.9, 0.95 } };
+		int[] assignment = HungarianAssignment.maximize(tall);
+		Assert.assertEquals(1.8, total(tall, assignment), 1e-9);
+		Assert.assertEquals(1, count(assignment, -1));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testEmpty() {
+		Assert.assertArrayEquals(new int[0], HungarianAssignment.maximize(new double[0][0]));
+		Assert.assertArrayEquals(new int[] { -1, -1 }, HungarianAssignment.maximize(new double[2][0]));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			int rows = 1 + random.nextInt(6);
+			int columns = 1 + random.nextInt(6);
+			double[][] scores = new double[rows][columns];
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++) {
+					scores[i][j] = random.nextInt(4) == 0 ? 0 : random.nextDouble();
+				}
+			}
+			int[] assignment = HungarianAssignment.maximize(scores);
+			Assert.assertEquals(Math.max(0, rows - columns), count(assignment, -1));
+			Assert.assertEquals(bruteForce(scores, 0, new boolean[columns]), total(scores, assignment), 1e-9);
+		}
+	}
+
+	private static double bruteForce(double[][] scores, int row, boolean[] usedColumns) {
+		if (row == scores.length) {
+			return 0;
+		}
+		// This row may be left out only if there are more rows than columns
+		double best = scores.length > usedColumns.length ? bruteForce(scores, row + 1, usedColumns) : Double.NEGATIVE_INFINITY;
+		for (int column = 0; column < usedColumns.length; column++) {
+			if (!usedColumns[column]) {
+				usedColumns[column] = true;
+				best = Math.max(best, scores[row][column] + bruteForce(scores, row + 1, usedColumns));
+				usedColumns[column] = false;
+			}
+		}
+		return best;
+	}
+
+	private static double total(double[][] scores, int[] assignment) {
+		double total = 0;
+		for (int row = 0; row < assignment.length; row++) {
+			if (assignment[row] >= 0) {
+				total += scores[row][assignment[row]];
+			}
+		}
+		return total;
+	}
+
+	private static int count(int[] assignment, int value) {
+		int count = 0;
+		for (int column : assignment) {
+			if (column == value) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
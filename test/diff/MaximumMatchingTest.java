@@ -0,0 +1,105 @@
+package diff;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.complexity.MethodDeclarationSizer;
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import diff.similarity.evaluator.MethodDeclarationSimilarityEvaluator;
+import diff.similarity.evaluator.WordSimilarityEvaluator;
+import lexeme.java.tree.ClassDeclaration;
+import lexeme.java.tree.MethodDeclaration;
+import lexeme.java.tree.Root;
+import tokenizer.CodeLocator;
+
+/** JUnit test. */
+public class MaximumMatchingTest {
+
+	/** Bounds the rate of two words by their lengths, as the method evaluator does by their sizes. */
+	private static class BoundedWordEvaluator extends WordSimilarityEvaluator {
+		@Override
+		public double upperBound(ShowableString word1, int size1, ShowableString word2, int size2) {
+			return sizeBound(size1, size2);
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testHopelessPairsAreNotEvaluated() {
+		List<ShowableString> left = WordSimilarityEvaluator.words("abcdefghijklmnopqrstuvwxyz getA");
+		List<ShowableString> right = WordSimilarityEvaluator.words("getB abcdefghijklmnopqrstuvwxyZ");
+		BoundedWordEvaluator evaluator = new BoundedWordEvaluator();
+		List<Similarity> matching = evaluator.maximumMatchList(left, right);
+		Assert.assertEquals(2, matching.size()); // Both pairs matched
+		Assert.assertEquals(2, evaluator.getEvaluations()); // Not the short word against the long one
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testSameMatchingAsFullEvaluation() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			List<ShowableString> left = WordSimilarityEvaluator.words(randomWords(random));
+			List<ShowableString> right = WordSimilarityEvaluator.words(randomWords(random));
+			double[][] scores = new double[left.size()][right.size()];
+			for (int i = 0; i < left.size(); i++) {
+				for (int j = 0; j < right.size(); j++) {
+					scores[i][j] = Similarity.eval(left.get(i), right.get(j)).similarity();
+				}
+			}
+			int[] assignment = HungarianAssignment.maximize(scores);
+			double best = 0;
+			for (int i = 0; i < left.size(); i++) {
+				best += assignment[i] < 0 ? 0 : scores[i][assignment[i]];
+			}
+			double found = 0;
+			for (Similarity similarity : new BoundedWordEvaluator().maximumMatchList(left, right)) {
+				found += MaximumMatching.score(similarity);
+			}
+			Assert.assertEquals(left + " / " + right, best, found, 1e-9);
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testSmallMethodAgainstLargeOneIsHopeless() throws IOException {
+		StringBuilder code = new StringBuilder();
+		for (String line : Files.readAllLines(Paths.get("resources/JavaTokenizer.java"))) {
+			code.append(line.trim()).append('\n');
+		}
+		ClassDeclaration classDeclaration = Root.build(new CodeLocator(code.toString()).branch()).get().getClassDeclaration();
+		List<MethodDeclaration> methods = new ArrayList<>(classDeclaration.getMethods());
+		methods.addAll(classDeclaration.getStaticMethods());
+		methods.sort((method1, method2) -> MethodDeclarationSizer.METHOD_DECLARATION_SIZER.size(method1)
+			- MethodDeclarationSizer.METHOD_DECLARATION_SIZER.size(method2));
+		MethodDeclaration small = methods.get(0);
+		MethodDeclaration large = methods.get(methods.size() - 1);
+		double bound = MethodDeclarationSimilarityEvaluator.INSTANCE.upperBound(small, MethodDeclarationSizer.METHOD_DECLARATION_SIZER.size(small), large,
+			MethodDeclarationSizer.METHOD_DECLARATION_SIZER.size(large));
+		Assert.assertTrue(bound < MaximumMatching.PRUNING_THRESHOLD);
+		Assert.assertTrue(MethodDeclarationSimilarityEvaluator.INSTANCE.eval(small, large).similarity() <= bound);
+	}
+
+	private static String randomWords(Random random) {
+		StringBuilder words = new StringBuilder();
+		int count = 1 + random.nextInt(6);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				words.append(' ');
+			}
+			int length = 1 + random.nextInt(random.nextBoolean() ? 3 : 12);
+			for (int c = 0; c < length; c++) {
+				words.append((char) ('a' + random.nextInt(3)));
+			}
+		}
+		return words.toString();
+	}
+}
@@ -0,0 +1,119 @@
+package diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.similarity.LeftLeafSimilarity;
+import diff.similarity.RightLeafSimilarity;
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import diff.similarity.evaluator.WordSimilarityEvaluator;
+
+/** JUnit test. */
+public class SeriesComparatorTest {
+
+	/** JUnit test. */
+	@Test
+	public void testUniqueEqualItemsAnchor() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<Similarity> alignment = new SeriesComparator<>(evaluator, WordSimilarityEvaluator.WORD_SIZER)
+			.compareOrderlyWithGaps(WordSimilarityEvaluator.words("one two three four five"), WordSimilarityEvaluator.words("five one two three four"));
+		// The longest series of unique equal items in the same order is anchored; "five" moved, so it is a gap on both sides
+		Assert.assertEquals("+five =one =two =three =four -five", show(alignment));
+		Assert.assertEquals(0, evaluator.getEvaluations()); // Identical items are not evaluated
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testRepeatedItemsDoNotAnchor() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<Similarity> alignment = new SeriesComparator<>(evaluator, WordSimilarityEvaluator.WORD_SIZER)
+			.compareOrderlyWithGaps(WordSimilarityEvaluator.words("start x alpha x end"), WordSimilarityEvaluator.words("start x alphas x end"));
+		Assert.assertEquals("=start =x =alpha/alphas =x =end", show(alignment));
+		Assert.assertEquals(1, evaluator.getEvaluations()); // Only the pair between the anchors and the identical neighbours
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testInsertionInTheMiddle() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> left = WordSimilarityEvaluator.words("kitten sitting mitten bitten");
+		List<ShowableString> right = WordSimilarityEvaluator.words("kittens sittings flag mittens bittens");
+		List<Similarity> alignment = new SeriesComparator<>(evaluator, WordSimilarityEvaluator.WORD_SIZER).compareOrderlyWithGaps(left, right);
+		Assert.assertEquals("=kitten/kittens =sitting/sittings +flag =mitten/mittens =bitten/bittens", show(alignment));
+		Assert.assertEquals(bruteForce(left, 0, right, 0), value(alignment), 1e-9);
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testDynamicProgrammingIsOptimal() {
+		Random random = new Random(42);
+		for (int test = 0; test < 300; test++) {
+			// No word appears on both sides: nothing is anchored, the whole series are aligned by dynamic programming
+			List<ShowableString> left = WordSimilarityEvaluator.words(randomWords(random, "a"));
+			List<ShowableString> right = WordSimilarityEvaluator.words(randomWords(random, "b"));
+			List<Similarity> alignment = new SeriesComparator<>(new WordSimilarityEvaluator(), WordSimilarityEvaluator.WORD_SIZER)
+				.compareOrderlyWithGaps(left, right);
+			Assert.assertEquals(left + " / " + right, bruteForce(left, 0, right, 0), value(alignment), 1e-9);
+		}
+	}
+
+	private static String randomWords(Random random, String end) {
+		List<String> words = new ArrayList<>();
+		for (int i = 1 + random.nextInt(6); i > 0; i--) {
+			StringBuilder word = new StringBuilder();
+			for (int length = 1 + random.nextInt(5); length > 0; length--) {
+				word.append((char) ('c' + random.nextInt(3)));
+			}
+			words.add(word.append(end).toString());
+		}
+		return String.join(" ", words);
+	}
+
+	/** The value of an alignment: each match is worth its rate times the size of both items. */
+	private static double value(List<Similarity> alignment) {
+		double value = 0;
+		for (Similarity similarity : alignment) {
+			if (!(similarity instanceof LeftLeafSimilarity) && !(similarity instanceof RightLeafSimilarity)) {
+				value += similarity.similarity() * (content(similarity.showLeft()).length() + content(similarity.showRight()).length());
+			}
+		}
+		return value;
+	}
+
+	/** The best value of all the alignments of left[i..] with right[j..], enumerated. */
+	private static double bruteForce(List<ShowableString> left, int i, List<ShowableString> right, int j) {
+		if (i == left.size() || j == right.size()) {
+			return 0;
+		}
+		ShowableString a = left.get(i);
+		ShowableString b = right.get(j);
+		double match = Similarity.eval(a, b).similarity() * (a.getContent().length() + b.getContent().length()) + bruteForce(left, i + 1, right, j + 1);
+		return Math.max(match, Math.max(bruteForce(left, i + 1, right, j), bruteForce(left, i, right, j + 1)));
+	}
+
+	/** Shows an alignment: "=a" for a match, "-a" for a left gap, "+a" for a right gap. */
+	private static String show(List<Similarity> alignment) {
+		List<String> items = new ArrayList<>();
+		for (Similarity similarity : alignment) {
+			if (similarity instanceof LeftLeafSimilarity) {
+				items.add("-" + content(similarity.showLeft()));
+			} else if (similarity instanceof RightLeafSimilarity) {
+				items.add("+" + content(similarity.showRight()));
+			} else {
+				String left = content(similarity.showLeft());
+				String right = content(similarity.showRight());
+				items.add("=" + (left.equals(right) ? left : left + "/" + right));
+			}
+		}
+		return String.join(" ", items);
+	}
+
+	private static String content(Object word) {
+		return ((ShowableString) word).getContent();
+	}
+}
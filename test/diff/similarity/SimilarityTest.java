@@ -0,0 +1,75 @@
+package diff.similarity;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.Levenshtein;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import diff.similarity.evaluator.WordSimilarityEvaluator;
+import tokenizer.CodeLocator;
+import tokenizer.CodeLocator.CodeLocation;
+
+/** JUnit test. */
+public class SimilarityTest {
+
+	/** JUnit test. */
+	@Test
+	public void testCutoffBoundsDissimilarStrings() {
+		StringBuilder left = new StringBuilder();
+		StringBuilder right = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			left.append('a');
+			right.append(i % 2 == 0 ? 'a' : 'b');
+		}
+		List<ShowableString> words = WordSimilarityEvaluator.words(left + " " + right);
+		Assert.assertEquals(0.5, Similarity.eval(words.get(0), words.get(1)).similarity(), 0);
+		Assert.assertEquals(0, Similarity.eval(words.get(0), words.get(1), 0.75).similarity(), 0); // Above the bound
+		Assert.assertEquals(0.5, Similarity.eval(words.get(0), words.get(1), 0.5).similarity(), 0);
+		Assert.assertEquals(1251, Levenshtein.distance(left, right, 1250)); // Stops past the bound
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testCutoffAgainstFullDistance() {
+		Random random = new Random(42);
+		for (int round = 0; round < 1000; round++) {
+			List<ShowableString> words = WordSimilarityEvaluator.words(randomWord(random) + " " + randomWord(random));
+			double full = Similarity.eval(words.get(0), words.get(1)).similarity();
+			for (double cutoff : new double[] {0, 0.25, 0.5, 0.75, 1}) {
+				double bounded = Similarity.eval(words.get(0), words.get(1), cutoff).similarity();
+				Assert.assertEquals(words + " " + cutoff, full >= cutoff ? full : 0, bounded, 1e-9);
+			}
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testOnlyParsedStringsAreInterned() {
+		CodeLocator locator = new CodeLocator("name name");
+		CodeLocation first = locator.from(0).length(4);
+		CodeLocation second = locator.from(5).length(4);
+		ShowableString parsed1 = ShowableString.interned("name", first);
+		ShowableString parsed2 = ShowableString.interned(new String("name"), second);
+		Assert.assertEquals(1, locator.getSymbolTable().size());
+		Assert.assertSame(parsed1.getContent(), parsed2.getContent());
+		Assert.assertTrue(parsed1.isSameSymbol(parsed2));
+
+		ShowableString derived1 = new ShowableString("import " + parsed1.getContent(), first);
+		ShowableString derived2 = new ShowableString("import " + parsed2.getContent(), second);
+		Assert.assertEquals(1, locator.getSymbolTable().size()); // Not interned
+		Assert.assertFalse(derived1.isSameSymbol(derived2));
+		Assert.assertEquals(1, Similarity.eval(derived1, derived2).similarity(), 0);
+	}
+
+	private static String randomWord(Random random) {
+		int length = 1 + random.nextInt(12);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(3)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,45 @@
+package diff.similarity.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.similarity.Similarity;
+import diff.similarity.evaluator.ClassDeclarationSimilarityEvaluator.ClassDeclarationSimilarity;
+import diff.similarity.evaluator.MethodDeclarationSimilarityEvaluator.MethodDeclarationSimilarity;
+import lexeme.java.tree.ClassDeclaration;
+import lexeme.java.tree.Root;
+import tokenizer.CodeLocator;
+
+/** JUnit test. */
+public class ClassDeclarationSimilarityEvaluatorTest {
+
+	/**
+	 * JUnit test.
+	 * 
+	 * @throws IOException
+	 *             if the resource cannot be read
+	 */
+	@Test
+	public void testIdenticalClassesKeepTheirStructure() throws IOException {
+		StringBuilder code = new StringBuilder();
+		StringBuilder reformatted = new StringBuilder();
+		for (String line : Files.readAllLines(Paths.get("resources/JavaTokenizer.java"))) {
+			code.append(line.trim()).append('\n');
+			reformatted.append(line.trim()).append("\n\n");
+		}
+		ClassDeclaration class1 = Root.build(new CodeLocator(code.toString()).branch()).get().getClassDeclaration();
+		ClassDeclaration class2 = Root.build(new CodeLocator(reformatted.toString()).branch()).get().getClassDeclaration();
+
+		Similarity similarity = ClassDeclarationSimilarityEvaluator.INSTANCE.eval(class1, class2);
+		Assert.assertTrue(similarity instanceof ClassDeclarationSimilarity);
+		Assert.assertEquals(1, similarity.similarity(), 1e-9);
+		Assert.assertTrue(similarity.subSimilarities().stream().anyMatch(sub -> sub instanceof MethodDeclarationSimilarity));
+		for (Similarity part : similarity.subSimilarities()) {
+			Assert.assertTrue(part.isEmpty() || part.similarity() == 1);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package diff.similarity.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import diff.EffortBudget;
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import lexeme.java.tree.Root;
+import tokenizer.CodeLocator;
+
+/** JUnit test. */
+public class SimilarityMemoTest {
+
+	/** JUnit test. */
+	@Test
+	public void testRepeatedPairIsHit() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("alpha alpaca");
+		try (SimilarityMemo memo = SimilarityMemo.open(10)) {
+			Similarity first = evaluator.eval(words.get(0), words.get(1));
+			Similarity second = evaluator.eval(words.get(0), words.get(1));
+			Assert.assertSame(first, second);
+			Assert.assertEquals(1, evaluator.getEvaluations());
+			Assert.assertEquals(1, memo.getHits());
+			Assert.assertEquals(1, memo.getMisses());
+
+			evaluator.eval(words.get(1), words.get(0)); // Another pair
+			Assert.assertEquals(2, evaluator.getEvaluations());
+		}
+		Assert.assertNull(SimilarityMemo.current());
+		evaluator.eval(words.get(0), words.get(1)); // Closed: evaluated again
+		Assert.assertEquals(3, evaluator.getEvaluations());
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testEvictionAtCapacity() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("a b c d");
+		try (SimilarityMemo memo = SimilarityMemo.open(2)) {
+			evaluator.eval(words.get(0), words.get(1));
+			evaluator.eval(words.get(1), words.get(2));
+			evaluator.eval(words.get(0), words.get(1)); // Hit: now the most recently used
+			evaluator.eval(words.get(2), words.get(3)); // Evicts the least recently used (b, c)
+			Assert.assertEquals(2, memo.size());
+			Assert.assertEquals(1, memo.getHits());
+
+			evaluator.eval(words.get(0), words.get(1));
+			Assert.assertEquals(2, memo.getHits());
+			evaluator.eval(words.get(1), words.get(2));
+			Assert.assertEquals(2, memo.getHits());
+			Assert.assertEquals(4, evaluator.getEvaluations());
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testApproximateMatchingLeavesMemoExact() {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> left = WordSimilarityEvaluator.words("alpha beta");
+		List<ShowableString> right = WordSimilarityEvaluator.words("alpaca beat");
+		try (SimilarityMemo memo = SimilarityMemo.open(10)) {
+			Similarity exact = evaluator.eval(left.get(0), right.get(0));
+			Similarity matching = evaluator.maximumMatch(left, right, EffortBudget.ofEvaluations(1));
+			Assert.assertTrue(matching.isApproximate());
+			Assert.assertFalse(exact.isApproximate()); // Shared with the memo: not flagged
+			Assert.assertFalse(evaluator.eval(left.get(0), right.get(0)).isApproximate());
+			Assert.assertEquals(2, memo.size()); // The seed pairs
+
+			Similarity unevaluated = EffortBudget.ofEvaluations(0).within(() -> evaluator.eval(left.get(0), right.get(1)));
+			Assert.assertTrue(unevaluated.isApproximate());
+			Assert.assertEquals(2, memo.size()); // Not remembered
+		}
+	}
+
+	/**
+	 * JUnit test.
+	 * 
+	 * @throws IOException
+	 *             if the resource cannot be read
+	 */
+	@Test
+	public void testDiffOpensItsOwnMemo() throws IOException {
+		StringBuilder code = new StringBuilder();
+		for (String line : Files.readAllLines(Paths.get("resources/JavaTokenizer.java"))) {
+			code.append(line.trim()).append('\n');
+		}
+		Root root1 = Root.build(new CodeLocator(code.toString()).branch()).get();
+		Root root2 = Root.build(new CodeLocator(code.toString()).branch()).get();
+
+		Similarity alone = RootSimilarityEvaluator.INSTANCE.eval(root1, root2);
+		Assert.assertNull(SimilarityMemo.current()); // Closed at the end of the diff
+
+		try (SimilarityMemo memo = SimilarityMemo.open(SimilarityMemo.DEFAULT_CAPACITY)) {
+			Similarity within = RootSimilarityEvaluator.INSTANCE.eval(root1, root2);
+			Assert.assertSame(memo, SimilarityMemo.current());
+			Assert.assertTrue(memo.size() > 1); // The caller's memo holds the pairs of the diff
+			Assert.assertEquals(alone.getSame(), within.getSame(), 1e-9);
+			Assert.assertEquals(alone.getAmount(), within.getAmount());
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package diff.similarity.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import diff.EffortBudget;
+import diff.similarity.ApproximateSimilarity;
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+
+/** JUnit test. */
+public class SimilarityStoreTest {
+
+	private Path file;
+
+	/**
+	 * Creates the file of the store.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be created
+	 */
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("similarities", ".store");
+	}
+
+	/**
+	 * Deletes the file of the store.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be deleted
+	 */
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * JUnit test.
+	 *
+	 * @throws IOException
+	 *             if the store cannot be opened
+	 */
+	@Test
+	public void testSaveAndOpen() throws IOException {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("alpha alpaca");
+		Similarity similarity = Similarity.eval(words.get(0), words.get(1));
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			Assert.assertSame(store, SimilarityStore.current());
+			Assert.assertNull(store.get(evaluator, 1, words.get(0), words.get(1), () -> similarity));
+			store.put(evaluator, 1, words.get(0), words.get(1), similarity);
+			Assert.assertEquals(1, store.size());
+		}
+		Assert.assertNull(SimilarityStore.current());
+
+		AtomicInteger evaluations = new AtomicInteger();
+		Supplier<Similarity> evaluation = () -> {
+			evaluations.incrementAndGet();
+			return similarity;
+		};
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			Assert.assertEquals(1, store.size());
+			Similarity stored = store.get(evaluator, 1, words.get(0), words.get(1), evaluation);
+			Assert.assertEquals(similarity.getSame(), stored.getSame(), 0);
+			Assert.assertEquals(similarity.getAmount(), stored.getAmount());
+			Assert.assertEquals(0, evaluations.get()); // Scores only
+			Assert.assertArrayEquals(similarity.show("").toArray(), stored.show("").toArray());
+			Assert.assertEquals(similarity.subSimilarities(), stored.subSimilarities());
+			Assert.assertEquals(1, evaluations.get()); // Details evaluated once
+
+			Assert.assertNull(store.get(evaluator, 2, words.get(0), words.get(1), evaluation)); // Another version
+			Assert.assertNull(store.get(evaluator, 1, words.get(1), words.get(0), evaluation)); // Another pair
+			Assert.assertEquals(1, store.getHits());
+			Assert.assertEquals(2, store.getMisses());
+		}
+
+		try (SimilarityStore store = SimilarityStore.open(file, 1000)) {
+			Assert.assertEquals(0, store.size()); // Another capacity: afresh
+		}
+	}
+
+	/**
+	 * JUnit test.
+	 *
+	 * @throws IOException
+	 *             if the store cannot be opened
+	 */
+	@Test
+	public void testEvictionOfLeastRecentlyUsed() throws IOException {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("a b c d e f g h i j");
+		try (SimilarityStore store = SimilarityStore.open(file, SimilarityStore.BUCKET_SIZE)) { // A single bucket
+			Assert.assertEquals(SimilarityStore.BUCKET_SIZE, store.getCapacity());
+			for (int i = 1; i <= SimilarityStore.BUCKET_SIZE; i++) {
+				store.put(evaluator, 1, words.get(0), words.get(i), Similarity.eval(words.get(0), words.get(i)));
+			}
+			Assert.assertEquals(SimilarityStore.BUCKET_SIZE, store.size());
+			Assert.assertNotNull(store.get(evaluator, 1, words.get(0), words.get(1), null)); // Now the most recently used
+
+			store.put(evaluator, 1, words.get(0), words.get(9), Similarity.eval(words.get(0), words.get(9))); // Evicts (a, c)
+			Assert.assertEquals(SimilarityStore.BUCKET_SIZE, store.size());
+			Assert.assertNotNull(store.get(evaluator, 1, words.get(0), words.get(1), null));
+			Assert.assertNull(store.get(evaluator, 1, words.get(0), words.get(2), null));
+			Assert.assertNotNull(store.get(evaluator, 1, words.get(0), words.get(9), null));
+		}
+	}
+
+	/**
+	 * JUnit test.
+	 *
+	 * @throws IOException
+	 *             if the store cannot be opened
+	 */
+	@Test
+	public void testApproximateIsNotStored() throws IOException {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("alpha alpaca");
+		Similarity approximate = ApproximateSimilarity.of(Similarity.eval(words.get(0), words.get(1)));
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			store.put(evaluator, 1, words.get(0), words.get(1), approximate);
+			Assert.assertEquals(0, store.size());
+			Assert.assertNull(store.get(evaluator, 1, words.get(0), words.get(1), () -> approximate));
+		}
+	}
+
+	/**
+	 * JUnit test.
+	 *
+	 * @throws IOException
+	 *             if the store cannot be opened
+	 */
+	@Test
+	public void testOtherFileIsReset() throws IOException {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("alpha alpaca");
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			store.put(evaluator, 1, words.get(0), words.get(1), Similarity.eval(words.get(0), words.get(1)));
+		}
+		byte[] content = Files.readAllBytes(file);
+		content[0] = 'X'; // Not a store, of the same size
+		Files.write(file, content);
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			Assert.assertEquals(0, store.size());
+			Assert.assertNull(store.get(evaluator, 1, words.get(0), words.get(1), null));
+		}
+	}
+
+	/**
+	 * JUnit test.
+	 *
+	 * @throws IOException
+	 *             if the store cannot be opened
+	 */
+	@Test
+	public void testDetailsUnderTheBudgetAndMemoOfTheDiff() throws IOException {
+		WordSimilarityEvaluator evaluator = new WordSimilarityEvaluator();
+		List<ShowableString> words = WordSimilarityEvaluator.words("alpha alpaca");
+		Similarity similarity = Similarity.eval(words.get(0), words.get(1));
+		AtomicReference<EffortBudget> budgetUsed = new AtomicReference<>();
+		AtomicReference<SimilarityMemo> memoUsed = new AtomicReference<>();
+		Supplier<Similarity> evaluation = () -> {
+			budgetUsed.set(EffortBudget.current());
+			memoUsed.set(SimilarityMemo.current());
+			return similarity;
+		};
+		EffortBudget budget = EffortBudget.ofEvaluations(10);
+		Similarity stored;
+		SimilarityMemo memo = SimilarityMemo.open(10);
+		try (SimilarityStore store = SimilarityStore.open(file, 100)) {
+			store.put(evaluator, 1, words.get(0), words.get(1), similarity);
+			stored = budget.within(() -> store.get(evaluator, 1, words.get(0), words.get(1), evaluation));
+		} finally {
+			memo.close();
+		}
+		Assert.assertNull(memoUsed.get()); // Scores only
+		Assert.assertArrayEquals(similarity.show("").toArray(), stored.show("").toArray()); // Shown after the diff
+		Assert.assertSame(budget, budgetUsed.get());
+		Assert.assertSame(memo, memoUsed.get());
+		Assert.assertNull(SimilarityMemo.current());
+		Assert.assertNull(EffortBudget.current());
+	}
+}
@@ -0,0 +1,64 @@
+package diff.similarity.evaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import diff.complexity.SyntaxSizer;
+import diff.similarity.Similarity;
+import diff.similarity.SimpleSimilarity.ShowableString;
+import tokenizer.CodeLocator;
+
+/**
+ * Compares single words, and counts the pairs actually evaluated. Test support.
+ */
+public class WordSimilarityEvaluator extends SimilarityEvaluator<ShowableString> {
+
+	/** Each word weighs as much as its length. */
+	public static final SyntaxSizer<ShowableString> WORD_SIZER = new SyntaxSizer<ShowableString>() {
+
+		@Override
+		public int size(ShowableString word) {
+			return word.getContent().length();
+		}
+	};
+
+	private int evaluations = 0;
+
+	/** Builds an evaluator. */
+	public WordSimilarityEvaluator() {
+		super(WORD_SIZER, "word");
+	}
+
+	@Override
+	protected Similarity evaluate(ShowableString word1, ShowableString word2) {
+		evaluations++;
+		return Similarity.eval(word1, word2);
+	}
+
+	/**
+	 * The number of pairs evaluated so far.
+	 *
+	 * @return a count
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Locates the words of a space-separated text.
+	 *
+	 * @param text
+	 *            some words
+	 * @return the words, each with its own location
+	 */
+	public static List<ShowableString> words(String text) {
+		CodeLocator locator = new CodeLocator(text);
+		List<ShowableString> words = new ArrayList<>();
+		int start = 0;
+		for (String word : text.split(" ")) {
+			words.add(new ShowableString(word, locator.from(start).length(word.length())));
+			start += word.length() + 1;
+		}
+		return words;
+	}
+}
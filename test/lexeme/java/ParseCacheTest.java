@@ -0,0 +1,86 @@
+package lexeme.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import lexeme.java.tree.Root;
+import tokenizer.CodeLocator;
+
+/**
+ * Tests the {@link ParseCache}.
+ */
+public class ParseCacheTest {
+
+	/**
+	 * A tree loaded from the cache is the tree that was parsed.
+	 *
+	 * @throws IOException
+	 *             if the cache directory cannot be created
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path directory = Files.createTempDirectory("parse-cache");
+		ParseCache cache = new ParseCache(directory, Long.MAX_VALUE);
+		StringBuilder code = new StringBuilder();
+		for (String line : Files.readAllLines(Paths.get("resources/JavaTokenizer.java"))) {
+			code.append(line.trim()).append('\n');
+		}
+		Root parsed = Root.build(new CodeLocator(code.toString()).branch()).get();
+		cache.store(new CodeLocator(code.toString()), parsed);
+
+		Optional<Root> cached = cache.load(new CodeLocator(code.toString()));
+		assertTrue(cached.isPresent());
+		Root loaded = cached.get();
+		assertEquals(parsed.fullBreakdown(""), loaded.fullBreakdown(""));
+		assertEquals(parsed.getLocation().getStart(), loaded.getLocation().getStart());
+		assertEquals(parsed.getLocation().getEnd(), loaded.getLocation().getEnd());
+	}
+
+	/**
+	 * The least recently used entries are evicted beyond the size of the cache,
+	 * loading an entry making it recently used.
+	 *
+	 * @throws IOException
+	 *             if the cache directory cannot be written
+	 */
+	@Test
+	public void testEviction() throws IOException {
+		Path directory = Files.createTempDirectory("parse-cache");
+		ParseCache unbounded = new ParseCache(directory, Long.MAX_VALUE);
+		CodeLocator first = new CodeLocator("package a;\nclass A {\n}\n");
+		CodeLocator second = new CodeLocator("package b;\nclass B {\n}\n");
+		unbounded.store(first, Root.build(first.branch()).get());
+		unbounded.store(second, Root.build(second.branch()).get());
+		long now = System.currentTimeMillis();
+		long total = 0;
+		try (Stream<Path> entries = Files.list(directory)) {
+			for (Path entry : (Iterable<Path>) entries::iterator) {
+				Files.setLastModifiedTime(entry, FileTime.fromMillis(now - 60_000)); // Both long unused
+				total += Files.size(entry);
+			}
+		}
+
+		ParseCache cache = new ParseCache(directory, total);
+		assertTrue(cache.load(first).isPresent()); // Now the most recently used
+		CodeLocator third = new CodeLocator("package c;\nclass C {\n}\n");
+		cache.store(third, Root.build(third.branch()).get());
+		assertTrue(cache.load(first).isPresent());
+		assertFalse(cache.load(second).isPresent());
+		assertTrue(cache.load(third).isPresent());
+		try (Stream<Path> entries = Files.list(directory)) {
+			assertEquals(2, entries.count());
+		}
+	}
+
+}
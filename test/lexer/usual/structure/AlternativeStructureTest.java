@@ -0,0 +1,66 @@
+package lexer.usual.structure;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import lexer.FirstSet;
+import lexer.Structure;
+import lexer.java.JavaLexer.JavaGrammar;
+import lexer.usual.structure.AlternativeStructure.AlternativeStructureFinder;
+import lexer.usual.structure.SequenceStructure.SequenceStructureLexer;
+import tokenizer.CodeLocator;
+import tokenizer.TokenStream;
+import tokenizer.TokenType;
+import tokenizer.java.JavaCodeTokenizer;
+import tokenizer.tokens.Symbol;
+
+/** JUnit test. */
+public class AlternativeStructureTest {
+
+	/** JUnit test. */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNestedAlternativesLexedOnce() {
+		// expression := term "+" expression | term
+		// term := word | "(" expression ")"
+		AtomicInteger wordTests = new AtomicInteger();
+		SingleWordStructureLexer<JavaGrammar> word = new SingleWordStructureLexer<>(token -> wordTests.incrementAndGet() > 0);
+		Class<Structure<JavaGrammar>> structure = (Class<Structure<JavaGrammar>>) (Class<?>) Structure.class;
+		Class<Symbol<JavaGrammar>> symbol = (Class<Symbol<JavaGrammar>>) (Class<?>) Symbol.class;
+		AlternativeStructureFinder<JavaGrammar, Structure<JavaGrammar>> expression = new AlternativeStructureFinder<>();
+		AlternativeStructureFinder<JavaGrammar, Structure<JavaGrammar>> term = new AlternativeStructureFinder<>();
+		SequenceStructureLexer<JavaGrammar> sum = new SequenceStructureLexer<>("sum");
+		sum.addLexer(structure, term);
+		sum.addLexer(symbol, new SingleSymbolStructureLexer<>(token -> "+".equals(token.getSymbol())));
+		sum.addLexer(structure, expression);
+		SequenceStructureLexer<JavaGrammar> parenthesis = new SequenceStructureLexer<>("parenthesis");
+		parenthesis.addLexer(symbol, new SingleSymbolStructureLexer<>(token -> "(".equals(token.getSymbol())));
+		parenthesis.addLexer(structure, expression);
+		parenthesis.addLexer(symbol, new SingleSymbolStructureLexer<>(token -> ")".equals(token.getSymbol())));
+		expression.addAlternative(sum);
+		expression.addAlternative(term);
+		term.addAlternative(word);
+		term.addAlternative(parenthesis);
+
+		FirstSet first = expression.first();
+		Assert.assertTrue(first.mayStart(TokenType.WORD));
+		Assert.assertTrue(first.mayStart(TokenType.SYMBOL));
+		Assert.assertFalse(first.mayStart(TokenType.WHITESPACE));
+
+		StringBuilder code = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			code.append('(');
+		}
+		code.append("a");
+		for (int i = 0; i < 30; i++) {
+			code.append(')');
+		}
+		TokenStream<JavaGrammar> tokens = TokenStream.of(JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(code.toString()).branch()));
+		Assert.assertTrue(expression.lex(tokens).isPresent());
+		Assert.assertFalse(tokens.hasNext());
+		Assert.assertEquals(1, wordTests.get()); // Not once per path to the word
+	}
+
+}
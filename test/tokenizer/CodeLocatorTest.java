@@ -0,0 +1,46 @@
+package tokenizer;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tokenizer.CodeLocator.CodeBranch;
+
+/** JUnit test. */
+public class CodeLocatorTest {
+
+	/** JUnit test. */
+	@Test
+	public void testRestView() {
+		CodeBranch branch = new CodeLocator("true;rest").branch();
+		branch.advance(4);
+		CharSequence rest = branch.getRestView();
+		Assert.assertEquals(";rest", rest.toString());
+		Assert.assertEquals(branch.getRest(), rest.toString());
+		Assert.assertEquals(5, rest.length());
+		Assert.assertEquals('r', rest.charAt(1));
+		Assert.assertEquals("re", rest.subSequence(1, 3).toString());
+		Assert.assertEquals("e", rest.subSequence(1, 3).subSequence(1, 2).toString());
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testRestViewOffsets() {
+		CodeBranch branch = new CodeLocator("int a = 1;").branch();
+		branch.advance(4);
+		Matcher matcher = Pattern.compile("^(\\w+)\\s*=").matcher(branch.getRestView());
+		Assert.assertTrue(matcher.find());
+		Assert.assertEquals("a", matcher.group(1));
+		Assert.assertEquals(3, matcher.end()); // Relative to the cursor, as with getRest()
+	}
+
+	/** JUnit test. */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRestViewBounds() {
+		CodeBranch branch = new CodeLocator("abc").branch();
+		branch.advance(1);
+		branch.getRestView().charAt(2);
+	}
+}
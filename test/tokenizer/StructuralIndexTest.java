@@ -0,0 +1,66 @@
+package tokenizer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/** JUnit test. */
+public class StructuralIndexTest {
+
+	/** JUnit test. */
+	@Test
+	public void testWhitespaceAndComments() {
+		Assert.assertEquals(hash("int a = b + c;"), hash("int  a=b /* sum */ +c ;"));
+		Assert.assertEquals(hash("foo(1, 2);"), hash("foo( 1,\n 2 ); // call\n"));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testSignificantDifferences() {
+		Assert.assertNotEquals(hash("int a;"), hash("inta;"));
+		Assert.assertNotEquals(hash("a - -b;"), hash("a--b;"));
+		Assert.assertNotEquals(hash("s = \"a b\";"), hash("s = \"ab\";"));
+		Assert.assertNotEquals(hash("s = \"// not a comment\";"), hash("s = \"\";"));
+		Assert.assertNotEquals(hash("a = b;"), hash("a = c;"));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testSpans() {
+		String code = "class A {\n  void f() { x = 1; }\n  void g() {x=1;}\n}";
+		StructuralIndex index = new StructuralIndex(code);
+		int first = code.indexOf("x = 1;");
+		int second = code.indexOf("x=1;");
+		// Identical spans, whatever their context and trailing whitespace
+		Assert.assertEquals(index.hash(first, first + "x = 1; ".length()), index.hash(second, second + "x=1;".length()));
+		Assert.assertEquals(hash("x=1;"), index.hash(first, first + "x = 1;".length()));
+		Assert.assertEquals(hash("void f() { x = 1; }"), index.hash(code.indexOf("void f"), code.indexOf("void g")));
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testLength() {
+		String code = "a /* b */ + // c\n\tc;";
+		StructuralIndex index = new StructuralIndex(code);
+		Assert.assertEquals("a+c;".length(), index.length(0, code.length()));
+		Assert.assertEquals("+c;".length(), index.length(1, code.length())); // Leading whitespace and comments
+		Assert.assertEquals(0, index.length(1, code.indexOf('+')));
+		Assert.assertEquals("int a;".length(), new StructuralIndex("int a;").length(0, "int a;".length())); // With a separator
+		Assert.assertEquals("a;".length(), new StructuralIndex("int a;").length(3, "int a;".length())); // Leading separator
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testNextSignificant() {
+		String code = "a /* b */ // c\n\td /* open\n// no line feed";
+		StructuralIndex index = new StructuralIndex(code);
+		Assert.assertEquals(0, index.nextSignificant(0));
+		Assert.assertEquals(code.indexOf('d'), index.nextSignificant(1));
+		Assert.assertEquals(code.indexOf("/* open"), index.nextSignificant(code.indexOf('d') + 1)); // Not closed
+		Assert.assertEquals(code.indexOf("// no"), index.nextSignificant(code.indexOf("// no") - 1)); // Not ended
+		Assert.assertEquals(code.length(), index.nextSignificant(code.length()));
+	}
+
+	private static long hash(String code) {
+		return new StructuralIndex(code).hash(0, code.length());
+	}
+}
@@ -0,0 +1,77 @@
+package tokenizer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import lexer.java.JavaLexer.JavaGrammar;
+import tokenizer.java.JavaCodeTokenizer;
+import tokenizer.usual.TokenReader;
+
+/** JUnit test. */
+public class TokenStreamTest {
+
+	private static String code() {
+		StringBuilder code = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			code.append("a").append(i).append(" = ").append(i).append(";\n");
+		}
+		return code.toString();
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testReaderSameTokensAsBuffer() throws IOException {
+		String code = code();
+		List<Token<JavaGrammar>> expected = JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(code).branch());
+		try (TokenReader<JavaGrammar, Token<JavaGrammar>> reader = JavaCodeTokenizer.read(new StringReader(code), new SymbolTable())) {
+			TokenStream<JavaGrammar> stream = TokenStream.of(reader);
+			TokenStream<JavaGrammar> start = stream.fork(); // Keeps the first tokens
+			for (Token<JavaGrammar> token : expected) {
+				TokenStream<JavaGrammar> fork = stream.fork();
+				Assert.assertEquals(token.getLocation().getStart(), fork.peek().getLocation().getStart());
+				Assert.assertEquals(token.getLocation().getCode(), fork.next().getLocation().getCode());
+				stream = fork.commit();
+			}
+			Assert.assertFalse(stream.hasNext());
+			Assert.assertNull(stream.next());
+			Assert.assertEquals(expected.get(0).getLocation().getCode(), start.next().getLocation().getCode());
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testWindowReleasesTokensNoLongerUsed() {
+		List<Token<JavaGrammar>> tokens = new ArrayList<>(JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(code()).branch()));
+		int[] oldest = {0};
+		TokenWindow<JavaGrammar> window = new TokenWindow<>(tokens.iterator(), () -> oldest[0]);
+		for (int i = 0; i < tokens.size(); i++) {
+			Assert.assertSame(tokens.get(i), window.get(i));
+			oldest[0] = i;
+		}
+		Assert.assertFalse(window.has(tokens.size()));
+		Assert.assertTrue(window.getOffset() > tokens.size() / 2);
+		Assert.assertSame(tokens.get(tokens.size() - 1), window.get(tokens.size() - 1));
+		try {
+			window.get(0);
+			Assert.fail("Released");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testWindowKeepsTokensInUse() {
+		List<Token<JavaGrammar>> tokens = new ArrayList<>(JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(code()).branch()));
+		TokenWindow<JavaGrammar> window = new TokenWindow<>(tokens.iterator(), () -> 10);
+		Assert.assertTrue(window.has(tokens.size() - 1));
+		Assert.assertTrue(window.getOffset() <= 10); // Grown rather than released
+		Assert.assertSame(tokens.get(10), window.get(10));
+	}
+
+}
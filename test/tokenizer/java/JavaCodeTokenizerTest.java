@@ -0,0 +1,63 @@
+package tokenizer.java;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import lexer.java.JavaLexer.JavaGrammar;
+import tokenizer.CodeLocator;
+import tokenizer.SymbolTable;
+import tokenizer.Token;
+import tokenizer.usual.TokenReader;
+
+/** JUnit test. */
+public class JavaCodeTokenizerTest {
+
+	/** JUnit test. */
+	@Test
+	public void testReadSameTokensAsBuffer() throws IOException {
+		String input = new String(Files.readAllBytes(Paths.get("resources/JavaTokenizer.java")), StandardCharsets.UTF_8);
+		List<String> expected = describe(JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(input).branch()));
+		try (TokenReader<JavaGrammar, Token<JavaGrammar>> reader = JavaCodeTokenizer.read(new StringReader(input), new SymbolTable())) {
+			List<Token<JavaGrammar>> tokens = new ArrayList<>();
+			reader.forEachRemaining(tokens::add);
+			Assert.assertEquals(expected, describe(tokens));
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testByteBufferSameTokensAsBuffer() throws IOException {
+		String input = "package a;\n// \u00e9t\u00e9\nclass A {\n\tString s = \"\u00e0\";\n}\n";
+		List<String> expected = describe(JavaCodeTokenizer.TOKENIZER.buffer(new CodeLocator(input).branch()));
+		ByteBuffer bytes = ByteBuffer.wrap(("////" + input).getBytes(StandardCharsets.UTF_8));
+		bytes.position(4); // Only the remaining bytes are read
+		for (int chunkSize : new int[] {1, 7, 1000}) {
+			try (TokenReader<JavaGrammar, Token<JavaGrammar>> reader = TokenReader.of(JavaCodeTokenizer.TOKENIZER, bytes, StandardCharsets.UTF_8,
+				chunkSize, new SymbolTable())) {
+				List<Token<JavaGrammar>> tokens = new ArrayList<>();
+				reader.forEachRemaining(tokens::add);
+				Assert.assertEquals(expected, describe(tokens));
+			}
+			Assert.assertEquals(4, bytes.position()); // Not consumed
+		}
+	}
+
+	private static List<String> describe(List<Token<JavaGrammar>> tokens) {
+		List<String> descriptions = new ArrayList<>();
+		for (Token<JavaGrammar> token : tokens) {
+			descriptions.add(token.getClass().getSimpleName() + "[" + token.getLocation().getStart() + "," + token.getLocation().getEnd() + "]"
+				+ token.getLocation().getCode());
+		}
+		return descriptions;
+	}
+
+}
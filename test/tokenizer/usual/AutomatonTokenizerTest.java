@@ -0,0 +1,103 @@
+package tokenizer.usual;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import lexer.java.JavaLexer.JavaGrammar;
+import tokenizer.CodeLocator;
+import tokenizer.SymbolTable;
+import tokenizer.Token;
+import tokenizer.TokenBuffer;
+import tokenizer.tokens.LineFeed;
+import tokenizer.tokens.Number;
+import tokenizer.tokens.Symbol;
+import tokenizer.tokens.Whitespace;
+import tokenizer.tokens.Word;
+
+/** JUnit test. */
+public class AutomatonTokenizerTest {
+
+	private static List<GenericTokenizer<JavaGrammar, ? extends Token<JavaGrammar>>> tokenizers() {
+		List<GenericTokenizer<JavaGrammar, ? extends Token<JavaGrammar>>> tokenizers = new ArrayList<>();
+		tokenizers.add(Whitespace.tokenizer());
+		tokenizers.add(LineFeed.tokenizer());
+		tokenizers.add(Symbol.tokenizer("(;)", ";"));
+		tokenizers.add(Symbol.tokenizer("(\\.)", "."));
+		tokenizers.add(Symbol.tokenizer("(\\/\\*)", "/*"));
+		tokenizers.add(Symbol.tokenizer("(\\/)", "/"));
+		tokenizers.add(Symbol.tokenizer("(\\*)", "*"));
+		tokenizers.add(Symbol.tokenizer("(\\/\\/.*)", "<LineComment>"));
+		tokenizers.add(Symbol.tokenizer("(class)\\W", "class"));
+		tokenizers.add(Symbol.tokenizer("(do)\\W", "do"));
+		tokenizers.add(Number.tokenizer());
+		tokenizers.add(Word.tokenizer());
+		return tokenizers;
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testSameTokensAsAggregate() throws IOException {
+		List<String> inputs = new ArrayList<>();
+		inputs.add("class classes do double; a.b /* c */ 12ab // d\n");
+		inputs.add("do");
+		inputs.add(new String(Files.readAllBytes(Paths.get("resources/JavaTokenizer.java"))));
+		AutomatonTokenizer<JavaGrammar, Token<JavaGrammar>> automaton = new AutomatonTokenizer<>(tokenizers());
+		AggregateTokenizer<JavaGrammar, Token<JavaGrammar>> aggregate = new AggregateTokenizer<>(new ArrayList<>(tokenizers()));
+		for (String input : inputs) {
+			Assert.assertEquals(describe(aggregate.tokenizeAll(new CodeLocator(input).branch()).orElse(new ArrayList<>())),
+				describe(automaton.tokenizeAll(new CodeLocator(input).branch()).orElse(new ArrayList<>())));
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testBufferSameTokens() throws IOException {
+		String input = new String(Files.readAllBytes(Paths.get("resources/JavaTokenizer.java")));
+		AutomatonTokenizer<JavaGrammar, Token<JavaGrammar>> automaton = new AutomatonTokenizer<>(tokenizers());
+		List<Token<JavaGrammar>> tokens = automaton.tokenizeAll(new CodeLocator(input).branch()).orElse(new ArrayList<>());
+		TokenBuffer<JavaGrammar> buffer = automaton.buffer(new CodeLocator(input).branch());
+		Assert.assertEquals(describe(tokens), describe(buffer));
+		for (int i = 0; i < buffer.size(); i++) {
+			Assert.assertEquals(tokens.get(i).getLocation().getCode(), buffer.getText(i));
+		}
+	}
+
+	/** JUnit test. */
+	@Test
+	public void testReaderSameTokensAsWholeSource() throws IOException {
+		String input = new String(Files.readAllBytes(Paths.get("resources/JavaTokenizer.java")));
+		AutomatonTokenizer<JavaGrammar, Token<JavaGrammar>> automaton = new AutomatonTokenizer<>(tokenizers());
+		List<String> expected = describe(automaton.tokenizeAll(new CodeLocator(input).branch()).orElse(new ArrayList<>()));
+		for (int chunkSize : new int[] {1, 5, 100}) {
+			try (TokenReader<JavaGrammar, Token<JavaGrammar>> reader = new TokenReader<>(automaton, new StringReader(input), chunkSize, new SymbolTable())) {
+				List<Token<JavaGrammar>> tokens = new ArrayList<>();
+				reader.forEachRemaining(tokens::add);
+				Assert.assertEquals(expected, describe(tokens));
+			}
+		}
+	}
+
+	/** JUnit test. */
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedPattern() {
+		List<GenericTokenizer<JavaGrammar, ? extends Token<JavaGrammar>>> tokenizers = new ArrayList<>();
+		tokenizers.add(Symbol.tokenizer("(a|b)", "a or b"));
+		new AutomatonTokenizer<>(tokenizers);
+	}
+
+	private static List<String> describe(List<Token<JavaGrammar>> tokens) {
+		List<String> descriptions = new ArrayList<>();
+		for (Token<JavaGrammar> token : tokens) {
+			descriptions.add(token.getClass().getSimpleName() + "[" + token.getLocation().getStart() + "," + token.getLocation().getEnd() + "]");
+		}
+		return descriptions;
+	}
+
+}